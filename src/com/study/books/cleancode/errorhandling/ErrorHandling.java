@@ -1,18 +1,38 @@
 package com.study.books.cleancode.errorhandling;
 
+import com.study.books.cleancode.errorhandling.obj.FallbackCounter;
+import com.study.books.cleancode.errorhandling.obj.GripFilter;
+import com.study.books.cleancode.errorhandling.obj.GripSectionFile;
 import com.study.books.cleancode.errorhandling.obj.MealExpenses;
+import com.study.books.cleancode.errorhandling.obj.MealTotal;
+import com.study.books.cleancode.errorhandling.obj.PortChannelPool;
+import com.study.books.cleancode.errorhandling.obj.PortConnection;
+import com.study.books.cleancode.errorhandling.obj.PortDeviceFailure;
 import com.study.books.cleancode.errorhandling.obj.RecordedGrip;
+import com.study.books.cleancode.errorhandling.obj.RecordedGripCursor;
+import com.study.books.cleancode.errorhandling.obj.RecordedGripSection;
 import com.study.books.cleancode.function.obj.Employee;
-
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import com.study.books.cleancode.function.obj.EmployeeList;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 /* 오류 처리는 프로그램에 반드시 필요한 요소 중 하나일 뿐이다.*/
 public class ErrorHandling {
 
+    private static final FallbackCounter MEAL_PER_DIEM_FALLBACKS = FallbackCounter.forSite("ErrorHandling.getTotal");
+    private static final FallbackCounter PORT_CHECK_FAILURES = FallbackCounter.forSite("ErrorHandling.portCheck");
+
     /* 오류 코드보다는 예외를 사용하라
         오류 코드를 정의하는 방식은 호출자의 코드가 복잡해진다.
         함수를 호출한 즉시 오류를 확인해야 하기 때문이다. 하지만 불행이도 이 단계는 잊어버리기 쉽다.
@@ -23,12 +43,48 @@ public class ErrorHandling {
         try 블록에서 무슨 일이 생기든지 catch 블록은 프로그램 상태를 일관성 있게 유지해야 한다.
         그러므로 에외가 발생할 코드를 짤 때는 try-catch-finally 문으로 시작하는 편이 낫다. */
     public List<RecordedGrip> retrieveSection(String sectionName) {
+        return retrieveSection(sectionName, GripFilter.all());
+    }
+
+    public List<RecordedGrip> retrieveSection(String sectionName, GripFilter filter) {
+        Path section = Paths.get(sectionName);
         try {
-            FileInputStream stream = new FileInputStream(sectionName);
-        } catch (FileNotFoundException e) {
-            throw new IllegalStateException(e);
+            if (GripSectionFile.isColumnar(section)) {
+                try (GripSectionFile file = GripSectionFile.open(section)) {
+                    return file.read(filter);
+                }
+            }
+            return filterRows(RecordedGripSection.map(section), filter);
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot retrieve section " + sectionName, e);
+        }
+    }
+
+    private List<RecordedGrip> filterRows(RecordedGripSection rows, GripFilter filter) {
+        if (filter == GripFilter.all()) {
+            return rows;
+        }
+        List<RecordedGrip> grips = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (filter.matches(rows.getRecordedAt(i), rows.getSensorId(i), rows.getPressure(i))) {
+                grips.add(rows.get(i));
+            }
+        }
+        return grips;
+    }
+
+    /* 섹션 전체를 메모리에 올리지 않고 필요한 레코드만 차례로 읽는 스트림.
+        스트림을 닫으면 파일도 닫히므로 try-with-resources 로 감싸서 쓴다. */
+    public Stream<RecordedGrip> streamSection(String sectionName, GripFilter filter) {
+        Path section = Paths.get(sectionName);
+        try {
+            if (GripSectionFile.isColumnar(section)) {
+                return GripSectionFile.open(section).stream(filter);
+            }
+            return RecordedGripCursor.open(section, filter).stream();
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot stream section " + sectionName, e);
         }
-        return new ArrayList<RecordedGrip>();
     }
     /* 먼저 강제로 예외를 일으키는 테스트 케이스를 작성한 후 테스트를 통과하게 코드를 작성하는 방법을 권장한다.
         그러면 자연스럽게 try 블록의 트랜잭션 범위부터 구현하게 되므로 범위 내에서 트랜잭션 본질을 유지하기 쉬워진다. */
@@ -52,51 +108,88 @@ public class ErrorHandling {
         우리가 오류를 처리하는 방식은 비교적 일정하다.
             1. 오류를 기록한다.
             2. 프로그램을 계속 수행해도 좋은지 확인한다. */
-    public void portCheck() {
-        LocalPort port = new LocalPort(12);
-        try {
-            port.open();
-        } catch (RuntimeException e) {
-            e.printStackTrace();
-        } finally {
+    public boolean portCheck() {
+        try (LocalPort port = new LocalPort(12)) {
+            return portCheck(port);
+        }
+    }
 
+    /* 스택 트레이스를 찍는 대신 연결 검사 결과를 받아 호출 지점의 카운터로 기록한다 */
+    public boolean portCheck(LocalPort port) {
+        boolean healthy = port.probe().join();
+        if (!healthy) {
+            PORT_CHECK_FAILURES.increment();
         }
+        return healthy;
     }
 
     /* LocalPort 클래스처럼 wrapper 클래스는 굉장히 유용하다.
         1. 외부 API 를 감싸면 외부 라이브러리와 프로그램 사이에서 의존성이 크게 줄어든다.
         2. 그래서 다른 라이브러리로 갈아타도 비용이 적다.
         3. 프로그램을 테스트하기도 쉬워진다.
-        4. 특정 업체가 API 를 설계한 방식에 발목 잡히지 않는다. */
-    public class LocalPort {
-        public LocalPort(int port) {}
+        4. 특정 업체가 API 를 설계한 방식에 발목 잡히지 않는다.
+        포트마다 스레드를 붙잡지 않도록 공유 PortSelector 위에서 연결을 풀로 관리한다. */
+    public class LocalPort implements AutoCloseable {
+        private final PortChannelPool channels;
 
-        public void open() {
+        public LocalPort(int port) {
+            this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        }
+
+        public LocalPort(InetSocketAddress address) {
+            this(address, new PortChannelPool.Settings());
+        }
+
+        public LocalPort(InetSocketAddress address, PortChannelPool.Settings settings) {
+            this.channels = new PortChannelPool(address, settings);
+        }
+
+        public PortConnection open() {
             try {
-                // wrapper 된 클래스의 실제 행위
-            } catch (Exception e) {
+                return channels.acquire().join();
+            } catch (CompletionException e) {
                 // open() 을 호출하는 부에서 하나로 축약해서 정의한 익셉션으로 throw
-                throw new RuntimeException();
-            } // 계속 하위 Exception 을 정의하면 축약 익셉션으로 throw
+                if (e.getCause() instanceof PortDeviceFailure) {
+                    throw (PortDeviceFailure) e.getCause();
+                }
+                throw new PortDeviceFailure("cannot open port " + channels.getAddress(), e.getCause());
+            }
+        }
+
+        public CompletableFuture<Integer> read(PortConnection connection, ByteBuffer buffer) {
+            return connection.read(buffer, channels.getReadTimeoutMillis());
+        }
+
+        public void release(PortConnection connection) {
+            channels.release(connection);
+        }
+
+        /* 새 연결을 맺어 포트가 살아 있는지 본다. 실패해도 예외 대신 false 로 끝난다 */
+        public CompletableFuture<Boolean> probe() {
+            return channels.probe();
+        }
+
+        @Override
+        public void close() {
+            channels.close();
         }
     }
 
     /* 정상 흐름을 정의하라 */
-    public void getTotal() {
+    public int getTotal() {
         int m_total = 0;
 
-        try {
-            MealExpenses expenses = new MealExpenses();
-            m_total += expenses.getTotal();
-        } catch (RuntimeException e) {
-            m_total += getMealPerDiem();
-        }
-        // 예외 상황을 만들어서 처리하는것 보다
-
         MealExpenses expenses = new MealExpenses();
-        m_total += expenses.getTotal();
-        // getTotal() 에서 구분해야하는 비지니스 로직을 구분해서 구현하여 정상 흐름으로 정의하자
+        MealTotal meals = expenses.getMealTotal();
+        if (meals.isPerDiem()) {
+            MEAL_PER_DIEM_FALLBACKS.increment();
+        }
+        m_total += meals.orElse(getMealPerDiem());
+        // 식비가 없을 때 예외를 던지고 catch 에서 일당으로 바꾸는 것보다
+        // getTotal() 에서 구분해야하는 비지니스 로직을 결과 객체로 돌려주어 정상 흐름으로 정의하자
+        return m_total;
     }
+
     private int getMealPerDiem() {
         return 0;
     }
@@ -109,27 +202,22 @@ public class ErrorHandling {
         null을 반환하는 코드는 일거리를 늘릴 뿐만 아니라 호출자에게 문제를 떠넘긴다.
         누구 하나라도 null 확인을 빼먹는다면 애플리케이션이 통제 불능에 빠질지도 모른다.
         메서드에서 null을 반환하고픈 유혹이 든다면 그 대신 예외를 던지거나 특수 사례 객체를 반환한다. */
-    public void getEmployee() {
-        int totalPay = 0;
-        List<Employee> employees = getEmployees();
-        if (employees != null) {    // getEmployees() 가 null을 반환할 가능성이 있다면 null 확인을 해야할 것이다.
-            for (Employee e : employees) {
-                totalPay += e.getPay();
-            }
-        }
-
+    public long getEmployee() {
+        // getEmployees() 가 null을 반환할 가능성이 있다면 null 확인을 해야할 것이다.
         // 하지만 null을 반환할 가능성이 없다면 확인을 하지 않아도 된다!
-        for (Employee e : employees) {
-            totalPay += e.getPay();
-        }
-
+        // 빈 목록도 EmployeeList.empty() 로 돌려주므로 바로 합계를 구하면 된다.
+        return getEmployees().totalPay();
     }
 
-    private List<Employee> getEmployees() {
+    private EmployeeList getEmployees() {
         if (isEmptyEmployee()) {   // null을 반환하게 해야할 케이스에 다른 처리를 하자!
-            return Collections.emptyList();
+            return EmployeeList.empty();
         }
-        return new ArrayList<>();
+        return EmployeeList.copyOf(loadEmployees());
+    }
+
+    private List<Employee> loadEmployees() {
+        return Collections.emptyList();
     }
 
     private boolean isEmptyEmployee() {
@@ -0,0 +1,57 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/* 호출 지점마다 대체 경로가 몇 번 실행됐는지 세는 카운터.
+    호출 지점은 카운터를 상수로 붙잡아 두고 increment() 만 부르므로 조회 비용이 없다. */
+public final class FallbackCounter {
+
+    private static final ConcurrentMap<String, FallbackCounter> COUNTERS = new ConcurrentHashMap<>();
+
+    private final String site;
+    private final LongAdder count = new LongAdder();
+
+    private FallbackCounter(String site) {
+        this.site = site;
+    }
+
+    public static FallbackCounter forSite(String site) {
+        if (site == null || site.isEmpty()) {
+            throw new IllegalArgumentException("call site name is required");
+        }
+        return COUNTERS.computeIfAbsent(site, FallbackCounter::new);
+    }
+
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (FallbackCounter counter : COUNTERS.values()) {
+            counts.put(counter.site, counter.getCount());
+        }
+        return counts;
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public void reset() {
+        count.reset();
+    }
+
+    public String getSite() {
+        return site;
+    }
+
+    @Override
+    public String toString() {
+        return site + "=" + getCount();
+    }
+}
@@ -0,0 +1,69 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+/* 레코드를 객체로 만들기 전에 원시 필드 값만으로 걸러 내는 조건.
+    조건을 더할 때마다 새 필터를 돌려주는 불변 객체다. */
+public final class GripFilter {
+
+    private static final GripFilter ALL = new GripFilter(Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+    private final long recordedFrom;
+    private final long recordedTo;
+    private final int minSensorId;
+    private final int maxSensorId;
+    private final int minPressure;
+
+    private GripFilter(long recordedFrom, long recordedTo, int minSensorId, int maxSensorId, int minPressure) {
+        this.recordedFrom = recordedFrom;
+        this.recordedTo = recordedTo;
+        this.minSensorId = minSensorId;
+        this.maxSensorId = maxSensorId;
+        this.minPressure = minPressure;
+    }
+
+    public static GripFilter all() {
+        return ALL;
+    }
+
+    public GripFilter recordedBetween(long from, long to) {
+        return new GripFilter(from, to, minSensorId, maxSensorId, minPressure);
+    }
+
+    public GripFilter sensor(int sensorId) {
+        return sensorsBetween(sensorId, sensorId);
+    }
+
+    public GripFilter sensorsBetween(int minSensorId, int maxSensorId) {
+        return new GripFilter(recordedFrom, recordedTo, minSensorId, maxSensorId, minPressure);
+    }
+
+    public GripFilter pressureAtLeast(int minPressure) {
+        return new GripFilter(recordedFrom, recordedTo, minSensorId, maxSensorId, minPressure);
+    }
+
+    public boolean matches(long recordedAt, int sensorId, int pressure) {
+        return recordedAt >= recordedFrom && recordedAt <= recordedTo
+                && sensorId >= minSensorId && sensorId <= maxSensorId
+                && pressure >= minPressure;
+    }
+
+    public long getRecordedFrom() {
+        return recordedFrom;
+    }
+
+    public long getRecordedTo() {
+        return recordedTo;
+    }
+
+    public int getMinSensorId() {
+        return minSensorId;
+    }
+
+    public int getMaxSensorId() {
+        return maxSensorId;
+    }
+
+    public int getMinPressure() {
+        return minPressure;
+    }
+
+}
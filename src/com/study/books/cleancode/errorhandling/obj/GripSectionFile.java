@@ -0,0 +1,274 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+
+/* 열 단위 섹션 파일을 읽는다. 형식은 GripSectionFormat 을 보라.
+    열 때 꼬리와 색인만 읽고 검증한다.
+    블록은 필터와 블록 통계가 겹칠 때만 읽고, 읽을 때마다 CRC32 를 확인한다. */
+public final class GripSectionFile implements Closeable {
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int largestBlock;
+    private final Block[] blocks;
+    private final long recordCount;
+
+    private GripSectionFile(Path file, FileChannel channel, Block[] blocks) {
+        this.file = file;
+        this.channel = channel;
+        this.blocks = blocks;
+        long count = 0;
+        int largest = 0;
+        for (Block block : blocks) {
+            count += block.recordCount;
+            largest = Math.max(largest, block.recordCount);
+        }
+        this.recordCount = count;
+        this.largestBlock = largest;
+    }
+
+    public static boolean isColumnar(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return GripSectionFormat.readVersion(channel, file) == GripSectionFormat.COLUMNAR_VERSION;
+        }
+    }
+
+    public static GripSectionFile open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            int version = GripSectionFormat.readVersion(channel, file);
+            if (version != GripSectionFormat.COLUMNAR_VERSION) {
+                throw new IOException("unsupported section version " + version + " in " + file);
+            }
+            ByteBuffer header = ByteBuffer.allocate(4);
+            GripSectionFormat.readFully(channel, header, 8, file);
+            int blockSize = header.getInt();
+            if (blockSize <= 0 || blockSize > Integer.MAX_VALUE / GripSectionFormat.RECORD_SIZE) {
+                throw new IOException("section " + file + " has a corrupt block size: " + blockSize);
+            }
+            return new GripSectionFile(file, channel, readIndex(channel, file, blockSize));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static Block[] readIndex(FileChannel channel, Path file, int blockSize) throws IOException {
+        long size = channel.size();
+        if (size < GripSectionFormat.HEADER_SIZE + GripSectionFormat.TRAILER_SIZE) {
+            throw new IOException("section " + file + " is too short: " + size + " bytes");
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(GripSectionFormat.TRAILER_SIZE);
+        GripSectionFormat.readFully(channel, trailer, size - GripSectionFormat.TRAILER_SIZE, file);
+        long indexOffset = trailer.getLong();
+        int indexCrc = trailer.getInt();
+        if (trailer.getInt() != GripSectionFormat.MAGIC) {
+            throw new IOException("section " + file + " has no trailer; it may be truncated");
+        }
+        long indexLength = size - GripSectionFormat.TRAILER_SIZE - indexOffset;
+        if (indexOffset < GripSectionFormat.HEADER_SIZE || indexLength < 4 || indexLength > Integer.MAX_VALUE) {
+            throw new IOException("section " + file + " has a corrupt index offset: " + indexOffset);
+        }
+        ByteBuffer index = ByteBuffer.allocate((int) indexLength);
+        GripSectionFormat.readFully(channel, index, indexOffset, file);
+        if (checksum(index) != indexCrc) {
+            throw new IOException("index checksum mismatch in " + file);
+        }
+        int blockCount = index.getInt();
+        if (index.remaining() != (long) blockCount * GripSectionFormat.INDEX_ENTRY_SIZE) {
+            throw new IOException("section " + file + " index does not match its block count " + blockCount);
+        }
+        Block[] blocks = new Block[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            blocks[i] = new Block(index);
+            checkBlock(blocks[i], i, blockSize, indexOffset, file);
+        }
+        return blocks;
+    }
+
+    /* 헤더의 blockSize 는 CRC 로 보호되지 않으므로 색인과 맞는지 여기서 확인한다 */
+    private static void checkBlock(Block block, int blockIndex, int blockSize, long indexOffset, Path file) throws IOException {
+        if (block.recordCount < 0 || block.recordCount > blockSize) {
+            throw new IOException("block " + blockIndex + " of " + file + " has " + block.recordCount
+                    + " records but the block size is " + blockSize);
+        }
+        long end = block.offset + (long) block.recordCount * GripSectionFormat.RECORD_SIZE;
+        if (block.offset < GripSectionFormat.HEADER_SIZE || end > indexOffset) {
+            throw new IOException("block " + blockIndex + " of " + file + " lies outside the data region: offset "
+                    + block.offset + ", " + block.recordCount + " records");
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        return (int) crc.getValue();
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public int getBlockCount() {
+        return blocks.length;
+    }
+
+    public List<RecordedGrip> read(GripFilter filter) throws IOException {
+        List<RecordedGrip> grips = new ArrayList<>();
+        ByteBuffer buffer = newBlockBuffer();
+        for (int i = 0; i < blocks.length; i++) {
+            if (blocks[i].mayContain(filter)) {
+                readBlock(i, buffer);
+                blocks[i].decode(buffer, filter, grips);
+            }
+        }
+        return grips;
+    }
+
+    /* 블록 하나 크기의 버퍼만 쓰며 차례로 읽는 스트림. 스트림을 닫으면 파일도 닫힌다. */
+    public Stream<RecordedGrip> stream(GripFilter filter) {
+        Spliterator<RecordedGrip> records = Spliterators.spliteratorUnknownSize(
+                new BlockIterator(filter), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(records, false).onClose(this::closeQuietly);
+    }
+
+    private ByteBuffer newBlockBuffer() {
+        return ByteBuffer.allocate(largestBlock * GripSectionFormat.RECORD_SIZE);
+    }
+
+    private void readBlock(int blockIndex, ByteBuffer buffer) throws IOException {
+        Block block = blocks[blockIndex];
+        buffer.clear();
+        buffer.limit(block.recordCount * GripSectionFormat.RECORD_SIZE);
+        GripSectionFormat.readFully(channel, buffer, block.offset, file);
+        if (checksum(buffer) != block.crc) {
+            throw new IOException("checksum mismatch in block " + blockIndex + " of " + file);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private final class BlockIterator implements Iterator<RecordedGrip> {
+        private final GripFilter filter;
+        private final ByteBuffer buffer = newBlockBuffer();
+        private int nextBlock;
+        private int row;
+        private int rows;
+        private RecordedGrip next;
+
+        private BlockIterator(GripFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && (row < rows || loadNextBlock())) {
+                next = blocks[nextBlock - 1].decode(buffer, row++, filter);
+            }
+            return next != null;
+        }
+
+        @Override
+        public RecordedGrip next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RecordedGrip current = next;
+            next = null;
+            return current;
+        }
+
+        private boolean loadNextBlock() {
+            while (nextBlock < blocks.length && !blocks[nextBlock].mayContain(filter)) {
+                nextBlock++;
+            }
+            if (nextBlock == blocks.length) {
+                return false;
+            }
+            try {
+                readBlock(nextBlock, buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows = blocks[nextBlock].recordCount;
+            row = 0;
+            nextBlock++;
+            return true;
+        }
+    }
+
+    private static final class Block {
+        private final long offset;
+        private final int recordCount;
+        private final long minRecordedAt;
+        private final long maxRecordedAt;
+        private final int minSensorId;
+        private final int maxSensorId;
+        private final int minPressure;
+        private final int maxPressure;
+        private final int crc;
+
+        private Block(ByteBuffer index) {
+            offset = index.getLong();
+            recordCount = index.getInt();
+            minRecordedAt = index.getLong();
+            maxRecordedAt = index.getLong();
+            minSensorId = index.getInt();
+            maxSensorId = index.getInt();
+            minPressure = index.getInt();
+            maxPressure = index.getInt();
+            crc = index.getInt();
+        }
+
+        private boolean mayContain(GripFilter filter) {
+            return maxRecordedAt >= filter.getRecordedFrom() && minRecordedAt <= filter.getRecordedTo()
+                    && maxSensorId >= filter.getMinSensorId() && minSensorId <= filter.getMaxSensorId()
+                    && maxPressure >= filter.getMinPressure();
+        }
+
+        private void decode(ByteBuffer buffer, GripFilter filter, List<RecordedGrip> grips) {
+            for (int row = 0; row < recordCount; row++) {
+                RecordedGrip grip = decode(buffer, row, filter);
+                if (grip != null) {
+                    grips.add(grip);
+                }
+            }
+        }
+
+        private RecordedGrip decode(ByteBuffer buffer, int row, GripFilter filter) {
+            long recordedAt = buffer.getLong(row * 8);
+            int sensorId = buffer.getInt(recordCount * 8 + row * 4);
+            int pressure = buffer.getInt(recordCount * 12 + row * 4);
+            return filter.matches(recordedAt, sensorId, pressure)
+                    ? new RecordedGrip(recordedAt, sensorId, pressure)
+                    : null;
+        }
+    }
+
+}
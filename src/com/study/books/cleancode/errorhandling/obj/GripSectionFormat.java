@@ -0,0 +1,50 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/* 열 단위 섹션 파일 형식(버전 2, 빅 엔디언)
+    - 헤더 16바이트 : magic(int) 'GRIP', version(int) 2, blockSize(int), reserved(int)
+    - 블록 : 레코드 n개를 열별로 저장한다. recordedAt long[n], sensorId int[n], pressure int[n]
+    - 색인 : blockCount(int) 다음에 블록마다 48바이트
+        offset(long), recordCount(int), recordedAt 최소/최대(long), sensorId 최소/최대(int),
+        pressure 최소/최대(int), 블록 CRC32(int)
+    - 꼬리 16바이트 : indexOffset(long), 색인 CRC32(int), magic(int)
+    블록 통계로 필요 없는 블록은 읽지 않고, 읽은 블록과 색인은 CRC32 로 검증한다. */
+final class GripSectionFormat {
+
+    static final int MAGIC = RecordedGripSection.MAGIC;
+    static final int COLUMNAR_VERSION = 2;
+    static final int HEADER_SIZE = 16;
+    static final int TRAILER_SIZE = 16;
+    static final int INDEX_ENTRY_SIZE = 48;
+    static final int RECORD_SIZE = 16;
+    static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private GripSectionFormat() {
+    }
+
+    static int readVersion(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8);
+        readFully(channel, header, 0, file);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("not a recorded grip section: " + file);
+        }
+        return header.getInt();
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position, Path file) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new IOException("section " + file + " ended unexpectedly at " + current);
+            }
+            current += read;
+        }
+        buffer.flip();
+    }
+
+}
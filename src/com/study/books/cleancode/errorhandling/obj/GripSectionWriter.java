@@ -0,0 +1,207 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/* 레코드를 블록 크기만큼 열별 배열에 모았다가 블록 단위로 파일에 쓴다.
+    close() 때 마지막 블록, 색인, 꼬리를 쓴다. 형식은 GripSectionFormat 을 보라. */
+public class GripSectionWriter implements Closeable {
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int blockSize;
+    private final long[] recordedAt;
+    private final int[] sensorIds;
+    private final int[] pressures;
+    private final ByteBuffer blockBuffer;
+    private ByteBuffer index = ByteBuffer.allocate(4 + 64 * GripSectionFormat.INDEX_ENTRY_SIZE);
+    private int blockCount;
+    private int pending;
+    private long position = GripSectionFormat.HEADER_SIZE;
+    private boolean closed;
+
+    public GripSectionWriter(Path file) throws IOException {
+        this(file, GripSectionFormat.DEFAULT_BLOCK_SIZE);
+    }
+
+    public GripSectionWriter(Path file, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+        }
+        this.file = file;
+        this.blockSize = blockSize;
+        this.recordedAt = new long[blockSize];
+        this.sensorIds = new int[blockSize];
+        this.pressures = new int[blockSize];
+        this.blockBuffer = ByteBuffer.allocate(blockSize * GripSectionFormat.RECORD_SIZE);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader();
+        index.position(4);
+    }
+
+    /* 한 줄에 "recordedAt,sensorId,pressure" 하나씩 적힌 텍스트 섹션을 변환한다.
+        빈 줄과 # 으로 시작하는 줄은 건너뛴다.
+        같은 디렉터리의 임시 파일에 다 쓴 뒤에만 옮기므로, 중간에 실패하면 sectionFile 은 그대로 남는다. */
+    public static void convertText(Path textFile, Path sectionFile) throws IOException {
+        Path temporary = sectionFile.resolveSibling(sectionFile.getFileName() + ".tmp");
+        boolean converted = false;
+        try {
+            try (BufferedReader reader = Files.newBufferedReader(textFile, StandardCharsets.UTF_8);
+                 GripSectionWriter writer = new GripSectionWriter(temporary)) {
+                String line;
+                int lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    String trimmed = line.trim();
+                    if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                        writer.write(parseLine(trimmed, textFile, lineNumber));
+                    }
+                }
+            }
+            Files.move(temporary, sectionFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            converted = true;
+        } finally {
+            if (!converted) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    private static RecordedGrip parseLine(String line, Path textFile, int lineNumber) throws IOException {
+        String[] fields = line.split(",");
+        if (fields.length != 3) {
+            throw new IOException(textFile + ":" + lineNumber + ": expected 3 fields but found " + fields.length);
+        }
+        try {
+            return new RecordedGrip(Long.parseLong(fields[0].trim()),
+                    Integer.parseInt(fields[1].trim()), Integer.parseInt(fields[2].trim()));
+        } catch (NumberFormatException e) {
+            throw new IOException(textFile + ":" + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    public void write(RecordedGrip grip) throws IOException {
+        write(grip.getRecordedAt(), grip.getSensorId(), grip.getPressure());
+    }
+
+    public void write(long recordedAt, int sensorId, int pressure) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("writer for " + file + " is closed");
+        }
+        this.recordedAt[pending] = recordedAt;
+        this.sensorIds[pending] = sensorId;
+        this.pressures[pending] = pressure;
+        pending++;
+        if (pending == blockSize) {
+            flushBlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (pending > 0) {
+                flushBlock();
+            }
+            writeIndexAndTrailer();
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(GripSectionFormat.HEADER_SIZE);
+        header.putInt(GripSectionFormat.MAGIC)
+                .putInt(GripSectionFormat.COLUMNAR_VERSION)
+                .putInt(blockSize)
+                .putInt(0)
+                .flip();
+        writeFully(header, 0);
+    }
+
+    private void flushBlock() throws IOException {
+        blockBuffer.clear();
+        long minRecordedAt = Long.MAX_VALUE;
+        long maxRecordedAt = Long.MIN_VALUE;
+        int minSensorId = Integer.MAX_VALUE;
+        int maxSensorId = Integer.MIN_VALUE;
+        int minPressure = Integer.MAX_VALUE;
+        int maxPressure = Integer.MIN_VALUE;
+        for (int i = 0; i < pending; i++) {
+            blockBuffer.putLong(recordedAt[i]);
+            minRecordedAt = Math.min(minRecordedAt, recordedAt[i]);
+            maxRecordedAt = Math.max(maxRecordedAt, recordedAt[i]);
+        }
+        for (int i = 0; i < pending; i++) {
+            blockBuffer.putInt(sensorIds[i]);
+            minSensorId = Math.min(minSensorId, sensorIds[i]);
+            maxSensorId = Math.max(maxSensorId, sensorIds[i]);
+        }
+        for (int i = 0; i < pending; i++) {
+            blockBuffer.putInt(pressures[i]);
+            minPressure = Math.min(minPressure, pressures[i]);
+            maxPressure = Math.max(maxPressure, pressures[i]);
+        }
+        blockBuffer.flip();
+        CRC32 crc = new CRC32();
+        crc.update(blockBuffer.duplicate());
+
+        ensureIndexCapacity();
+        index.putLong(position)
+                .putInt(pending)
+                .putLong(minRecordedAt).putLong(maxRecordedAt)
+                .putInt(minSensorId).putInt(maxSensorId)
+                .putInt(minPressure).putInt(maxPressure)
+                .putInt((int) crc.getValue());
+
+        position += writeFully(blockBuffer, position);
+        blockCount++;
+        pending = 0;
+    }
+
+    private void ensureIndexCapacity() {
+        if (index.remaining() < GripSectionFormat.INDEX_ENTRY_SIZE) {
+            ByteBuffer larger = ByteBuffer.allocate(index.capacity() * 2);
+            index.flip();
+            larger.put(index);
+            index = larger;
+        }
+    }
+
+    private void writeIndexAndTrailer() throws IOException {
+        index.putInt(0, blockCount);
+        index.flip();
+        CRC32 crc = new CRC32();
+        crc.update(index.duplicate());
+        long indexOffset = position;
+        position += writeFully(index, position);
+
+        ByteBuffer trailer = ByteBuffer.allocate(GripSectionFormat.TRAILER_SIZE);
+        trailer.putLong(indexOffset).putInt((int) crc.getValue()).putInt(GripSectionFormat.MAGIC).flip();
+        position += writeFully(trailer, position);
+    }
+
+    private int writeFully(ByteBuffer buffer, long at) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, at + written);
+        }
+        return written;
+    }
+
+}
@@ -1,7 +1,40 @@
 package com.study.books.cleancode.errorhandling.obj;
 
 public class MealExpenses {
+
+    private static final MealExpenses NOT_RECORDED = new MealExpenses(MealTotal.perDiem());
+
+    private final MealTotal mealTotal;
+
+    public MealExpenses() {
+        this(0);
+    }
+
+    public MealExpenses(int total) {
+        this(MealTotal.expensed(total));
+    }
+
+    private MealExpenses(MealTotal mealTotal) {
+        this.mealTotal = mealTotal;
+    }
+
+    public static MealExpenses notRecorded() {
+        return NOT_RECORDED;
+    }
+
+    public boolean isRecorded() {
+        return !mealTotal.isPerDiem();
+    }
+
     public int getTotal() {
-        return 0;
+        if (mealTotal.isPerDiem()) {
+            throw new IllegalStateException("meal expenses are not recorded");
+        }
+        return mealTotal.getAmount();
+    }
+
+    /* 기록이 없을 때도 예외 없이 결과를 돌려주므로 정상 흐름에서 쓴다. */
+    public MealTotal getMealTotal() {
+        return mealTotal;
     }
 }
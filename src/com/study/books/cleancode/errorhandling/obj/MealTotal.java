@@ -0,0 +1,44 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+/* 식비 합계를 구한 결과.
+    식비 기록이 없으면 예외를 던지는 대신 일당으로 대신하라는 특수 사례 객체를 돌려준다. */
+public final class MealTotal {
+
+    private static final MealTotal PER_DIEM = new MealTotal(0, true);
+
+    private final int amount;
+    private final boolean perDiem;
+
+    private MealTotal(int amount, boolean perDiem) {
+        this.amount = amount;
+        this.perDiem = perDiem;
+    }
+
+    public static MealTotal expensed(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("meal total must not be negative: " + amount);
+        }
+        return new MealTotal(amount, false);
+    }
+
+    public static MealTotal perDiem() {
+        return PER_DIEM;
+    }
+
+    public boolean isPerDiem() {
+        return perDiem;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public int orElse(int perDiemAmount) {
+        return perDiem ? perDiemAmount : amount;
+    }
+
+    @Override
+    public String toString() {
+        return perDiem ? "MealTotal{per diem}" : "MealTotal{" + amount + "}";
+    }
+}
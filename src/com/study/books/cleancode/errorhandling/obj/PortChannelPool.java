@@ -0,0 +1,140 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+import java.net.InetSocketAddress;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* 한 주소로 맺은 연결을 다시 쓰기 위한 풀.
+    쉬는 연결이 있으면 상대가 닫지 않았는지 확인해 돌려주고, 없으면 PortSelector 로 새로 연결한다.
+    다 쓴 연결은 release() 로 돌려놓는다. */
+public class PortChannelPool implements AutoCloseable {
+
+    private final InetSocketAddress address;
+    private final Settings settings;
+    private final PortSelector selector;
+    private final Deque<PortConnection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    public PortChannelPool(InetSocketAddress address) {
+        this(address, new Settings());
+    }
+
+    public PortChannelPool(InetSocketAddress address, Settings settings) {
+        this(address, settings, PortSelector.shared());
+    }
+
+    public PortChannelPool(InetSocketAddress address, Settings settings, PortSelector selector) {
+        this.address = address;
+        this.settings = settings;
+        this.selector = selector;
+    }
+
+    public CompletableFuture<PortConnection> acquire() {
+        if (closed) {
+            CompletableFuture<PortConnection> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new PortDeviceFailure("port pool for " + address + " is closed"));
+            return failed;
+        }
+        PortConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            if (connection.isReusable()) {
+                return CompletableFuture.completedFuture(connection);
+            }
+            connection.close();
+        }
+        return selector.connect(address, settings.connectTimeoutMillis);
+    }
+
+    /* 쉬는 연결이 있어도 언제나 새로 연결해 본다.
+        성공하면 그 연결을 풀에 넣고, 실패하면 상대가 내려간 것이므로 쉬는 연결도 모두 버린다. */
+    public CompletableFuture<Boolean> probe() {
+        if (closed) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return selector.connect(address, settings.connectTimeoutMillis).handle((connection, failure) -> {
+            if (failure != null) {
+                closeIdle();
+                return false;
+            }
+            release(connection);
+            return true;
+        });
+    }
+
+    public void release(PortConnection connection) {
+        if (closed || !connection.isOpen()) {
+            connection.close();
+            return;
+        }
+        if (idleCount.incrementAndGet() > settings.maxIdle) {
+            idleCount.decrementAndGet();
+            connection.close();
+            return;
+        }
+        idle.offerFirst(connection);
+        if (closed) {
+            closeIdle();
+        }
+    }
+
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    public long getReadTimeoutMillis() {
+        return settings.readTimeoutMillis;
+    }
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeIdle();
+    }
+
+    private void closeIdle() {
+        PortConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            connection.close();
+        }
+    }
+
+    public static class Settings {
+        private long connectTimeoutMillis = 1000;
+        private long readTimeoutMillis = 1000;
+        private int maxIdle = 8;
+
+        public Settings connectTimeoutMillis(long connectTimeoutMillis) {
+            this.connectTimeoutMillis = positive("connectTimeoutMillis", connectTimeoutMillis);
+            return this;
+        }
+
+        public Settings readTimeoutMillis(long readTimeoutMillis) {
+            this.readTimeoutMillis = positive("readTimeoutMillis", readTimeoutMillis);
+            return this;
+        }
+
+        public Settings maxIdle(int maxIdle) {
+            if (maxIdle < 0) {
+                throw new IllegalArgumentException("maxIdle must not be negative: " + maxIdle);
+            }
+            this.maxIdle = maxIdle;
+            return this;
+        }
+
+        private static long positive(String name, long value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+
+/* PortSelector 위에서 연결된 논블로킹 채널 하나.
+    읽기와 쓰기는 채널이 준비될 때까지 스레드를 붙잡지 않고 future 로 결과를 돌려준다. */
+public final class PortConnection implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final PortSelector.EventLoop loop;
+    private final ByteBuffer peerCheck = ByteBuffer.allocate(1);
+
+    PortConnection(SocketChannel channel, PortSelector.EventLoop loop) {
+        this.channel = channel;
+        this.loop = loop;
+    }
+
+    /* 읽은 바이트 수를 돌려준다. 상대가 연결을 닫았으면 -1 이다 */
+    public CompletableFuture<Integer> read(ByteBuffer buffer, long timeoutMillis) {
+        return loop.read(channel, buffer, timeoutMillis);
+    }
+
+    /* 버퍼를 모두 보낸 뒤 보낸 바이트 수를 돌려준다 */
+    public CompletableFuture<Integer> write(ByteBuffer buffer, long timeoutMillis) {
+        return loop.write(channel, buffer, timeoutMillis);
+    }
+
+    public boolean isOpen() {
+        return channel.isOpen() && channel.isConnected();
+    }
+
+    /* 쉬는 연결에만 쓴다. 상대가 닫았거나 기다리지 않은 데이터가 와 있으면 다시 쓸 수 없다 */
+    boolean isReusable() {
+        if (!isOpen()) {
+            return false;
+        }
+        try {
+            peerCheck.clear();
+            return channel.read(peerCheck) == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        PortSelector.closeQuietly(channel);
+    }
+}
@@ -0,0 +1,16 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+/* LocalPort 가 감싼 장치에서 일어난 실패를 하나로 축약한 예외.
+    호출자는 실패를 기록하고 계속 진행할 뿐 스택을 보지 않으므로 스택 트레이스를 채우지 않는다. */
+public class PortDeviceFailure extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PortDeviceFailure(String message) {
+        super(message, null, false, false);
+    }
+
+    public PortDeviceFailure(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
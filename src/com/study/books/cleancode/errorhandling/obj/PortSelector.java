@@ -0,0 +1,372 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* 적은 수의 스레드가 각자 Selector 하나씩을 돌리며 수많은 포트의 연결과 읽기를 처리한다.
+    - 채널마다 한 번에 하나의 연산만 걸 수 있다.
+    - 제한 시간을 넘긴 연산은 PortDeviceFailure 로 끝난다. 연결이 시간 초과되면 채널도 닫는다.
+    - 모든 실패는 PortDeviceFailure 로 축약해 future 에 담는다.
+    - 연산 하나가 던진 예외는 그 연산만 실패시키고, 루프가 어떤 이유로든 끝나면 남은 연산을 모두 실패시킨다. */
+public final class PortSelector implements AutoCloseable {
+
+    private final EventLoop[] loops;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+
+    public PortSelector(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        loops = new EventLoop[threads];
+        for (int i = 0; i < threads; i++) {
+            loops[i] = new EventLoop("port-selector-" + i);
+        }
+    }
+
+    public static PortSelector shared() {
+        return Shared.INSTANCE;
+    }
+
+    public CompletableFuture<PortConnection> connect(InetSocketAddress address, long timeoutMillis) {
+        EventLoop loop = loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)];
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            if (channel.connect(address)) {
+                return CompletableFuture.completedFuture(new PortConnection(channel, loop));
+            }
+        } catch (IOException e) {
+            closeQuietly(channel);
+            CompletableFuture<PortConnection> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new PortDeviceFailure("cannot connect to " + address, e));
+            return failed;
+        }
+        ConnectOperation connect = new ConnectOperation(channel, loop, address, timeoutMillis);
+        loop.submit(connect);
+        return connect.future;
+    }
+
+    @Override
+    public void close() {
+        for (EventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+
+    static void closeQuietly(SocketChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // 이미 실패한 채널이므로 닫다가 난 오류는 보고할 것이 없다
+        }
+    }
+
+    private static class Shared {
+        private static final PortSelector INSTANCE =
+                new PortSelector(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+    }
+
+    static final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<Operation<?>> submitted = new ConcurrentLinkedQueue<>();
+        private final PriorityQueue<Operation<?>> deadlines =
+                new PriorityQueue<>(Comparator.comparingLong((Operation<?> operation) -> operation.deadline));
+        private volatile boolean running = true;
+
+        private EventLoop(String name) {
+            try {
+                selector = Selector.open();
+            } catch (IOException e) {
+                throw new IllegalStateException("cannot open selector", e);
+            }
+            Thread thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        CompletableFuture<Integer> read(SocketChannel channel, ByteBuffer buffer, long timeoutMillis) {
+            ReadOperation read = new ReadOperation(channel, buffer, timeoutMillis);
+            submit(read);
+            return read.future;
+        }
+
+        CompletableFuture<Integer> write(SocketChannel channel, ByteBuffer buffer, long timeoutMillis) {
+            WriteOperation write = new WriteOperation(channel, buffer, timeoutMillis);
+            submit(write);
+            return write.future;
+        }
+
+        /* 넣은 뒤에 한 번 더 확인한다. 그 사이 루프가 끝났다면 남은 연산을 비우는 쪽과 여기 중 하나가 반드시 실패시킨다. */
+        private void submit(Operation<?> operation) {
+            if (!running) {
+                operation.fail(new PortDeviceFailure("port selector is closed"));
+                return;
+            }
+            submitted.add(operation);
+            selector.wakeup();
+            if (!running && submitted.remove(operation)) {
+                operation.fail(new PortDeviceFailure("port selector is closed"));
+            }
+        }
+
+        private void shutdown() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            PortDeviceFailure failure = new PortDeviceFailure("port selector is closed");
+            try {
+                while (running) {
+                    selector.select(selectTimeoutMillis());
+                    registerSubmitted();
+                    performSelected();
+                    expireOverdue();
+                }
+            } catch (IOException | RuntimeException e) {
+                failure = new PortDeviceFailure("port selector failed", e);
+            } finally {
+                running = false;
+                closeSelector();
+                failPending(failure);
+            }
+        }
+
+        private long selectTimeoutMillis() {
+            while (!deadlines.isEmpty() && deadlines.peek().done) {
+                deadlines.poll();
+            }
+            if (deadlines.isEmpty()) {
+                return 0;
+            }
+            long remaining = deadlines.peek().deadline - System.nanoTime();
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+        }
+
+        private void registerSubmitted() {
+            Operation<?> operation;
+            while ((operation = submitted.poll()) != null) {
+                try {
+                    SelectionKey key = operation.channel.keyFor(selector);
+                    if (key == null || !key.isValid()) {
+                        operation.channel.register(selector, operation.interestOps, operation);
+                    } else {
+                        key.interestOps(operation.interestOps);
+                        key.attach(operation);
+                    }
+                    deadlines.add(operation);
+                } catch (IOException | RuntimeException e) {
+                    operation.fail(new PortDeviceFailure("cannot register " + operation.describe(), e));
+                }
+            }
+        }
+
+        private void performSelected() {
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Operation<?> operation = (Operation<?>) key.attachment();
+                if (operation == null || operation.done) {
+                    continue;
+                }
+                try {
+                    if (operation.perform()) {
+                        detach(key);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    detach(key);
+                    operation.fail(new PortDeviceFailure(operation.describe() + " failed", e));
+                }
+            }
+        }
+
+        private void expireOverdue() {
+            long now = System.nanoTime();
+            while (!deadlines.isEmpty() && deadlines.peek().deadline - now <= 0) {
+                Operation<?> operation = deadlines.poll();
+                if (operation.done) {
+                    continue;
+                }
+                try {
+                    detach(operation.channel.keyFor(selector));
+                } finally {
+                    operation.expire();
+                }
+            }
+        }
+
+        private void failPending(PortDeviceFailure failure) {
+            Operation<?> operation;
+            while ((operation = submitted.poll()) != null) {
+                operation.fail(failure);
+            }
+            while ((operation = deadlines.poll()) != null) {
+                operation.fail(failure);
+            }
+        }
+
+        private void closeSelector() {
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // 루프가 끝난 뒤라 더 할 일이 없다
+            }
+        }
+
+        private static void detach(SelectionKey key) {
+            if (key == null) {
+                return;
+            }
+            key.attach(null);
+            try {
+                key.interestOps(0);
+            } catch (CancelledKeyException ignored) {
+                // 다른 스레드가 채널을 닫아 키가 취소됐다. 더 이상 선택되지 않으므로 그대로 둔다
+            }
+        }
+    }
+
+    private abstract static class Operation<T> {
+        final SocketChannel channel;
+        final int interestOps;
+        final long deadline;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        volatile boolean done;
+
+        Operation(SocketChannel channel, int interestOps, long timeoutMillis) {
+            this.channel = channel;
+            this.interestOps = interestOps;
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        }
+
+        /* 연산을 마쳤으면 future 를 채우고 true 를 돌려준다 */
+        abstract boolean perform() throws IOException;
+
+        abstract String describe();
+
+        void expire() {
+            fail(new PortDeviceFailure(describe() + " timed out"));
+        }
+
+        final synchronized void complete(T value) {
+            if (done) {
+                return;
+            }
+            done = true;
+            future.complete(value);
+        }
+
+        /* 루프 스레드와, 루프가 끝나는 순간 submit 한 스레드가 함께 부를 수 있다 */
+        final synchronized void fail(PortDeviceFailure failure) {
+            if (done) {
+                return;
+            }
+            done = true;
+            abandon();
+            future.completeExceptionally(failure);
+        }
+
+        void abandon() {
+        }
+    }
+
+    private static final class ConnectOperation extends Operation<PortConnection> {
+        private final EventLoop loop;
+        private final InetSocketAddress address;
+
+        ConnectOperation(SocketChannel channel, EventLoop loop, InetSocketAddress address, long timeoutMillis) {
+            super(channel, SelectionKey.OP_CONNECT, timeoutMillis);
+            this.loop = loop;
+            this.address = address;
+        }
+
+        @Override
+        boolean perform() throws IOException {
+            if (!channel.finishConnect()) {
+                return false;
+            }
+            complete(new PortConnection(channel, loop));
+            return true;
+        }
+
+        @Override
+        String describe() {
+            return "connect to " + address;
+        }
+
+        @Override
+        void abandon() {
+            closeQuietly(channel);
+        }
+    }
+
+    private static final class ReadOperation extends Operation<Integer> {
+        private final ByteBuffer buffer;
+
+        ReadOperation(SocketChannel channel, ByteBuffer buffer, long timeoutMillis) {
+            super(channel, SelectionKey.OP_READ, timeoutMillis);
+            this.buffer = buffer;
+        }
+
+        @Override
+        boolean perform() throws IOException {
+            int read = channel.read(buffer);
+            if (read == 0) {
+                return false;
+            }
+            complete(read);
+            return true;
+        }
+
+        @Override
+        String describe() {
+            return "read";
+        }
+    }
+
+    private static final class WriteOperation extends Operation<Integer> {
+        private final ByteBuffer buffer;
+        private int written;
+
+        WriteOperation(SocketChannel channel, ByteBuffer buffer, long timeoutMillis) {
+            super(channel, SelectionKey.OP_WRITE, timeoutMillis);
+            this.buffer = buffer;
+        }
+
+        @Override
+        boolean perform() throws IOException {
+            written += channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+            complete(written);
+            return true;
+        }
+
+        @Override
+        String describe() {
+            return "write";
+        }
+    }
+}
@@ -1,4 +1,48 @@
 package com.study.books.cleancode.errorhandling.obj;
 
 public class RecordedGrip {
+
+    private final long recordedAt;
+    private final int sensorId;
+    private final int pressure;
+
+    public RecordedGrip(long recordedAt, int sensorId, int pressure) {
+        this.recordedAt = recordedAt;
+        this.sensorId = sensorId;
+        this.pressure = pressure;
+    }
+
+    public long getRecordedAt() {
+        return recordedAt;
+    }
+
+    public int getSensorId() {
+        return sensorId;
+    }
+
+    public int getPressure() {
+        return pressure;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RecordedGrip)) {
+            return false;
+        }
+        RecordedGrip other = (RecordedGrip) o;
+        return recordedAt == other.recordedAt && sensorId == other.sensorId && pressure == other.pressure;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Long.hashCode(recordedAt) + sensorId) + pressure;
+    }
+
+    @Override
+    public String toString() {
+        return "RecordedGrip{recordedAt=" + recordedAt + ", sensorId=" + sensorId + ", pressure=" + pressure + "}";
+    }
 }
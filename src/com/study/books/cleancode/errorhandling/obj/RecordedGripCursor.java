@@ -0,0 +1,105 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/* 섹션을 처음부터 차례로 읽으며 필요할 때마다 레코드 하나씩 만든다.
+    고정 크기 버퍼 하나만 쓰므로 섹션 크기와 상관없이 힙 사용량이 일정하다.
+    필터에 맞지 않는 레코드는 객체로 만들지 않는다. 다 쓰면 반드시 close() 로 파일을 놓아준다. */
+public final class RecordedGripCursor implements Iterator<RecordedGrip>, AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final GripFilter filter;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long remainingRecords;
+    private RecordedGrip next;
+
+    private RecordedGripCursor(FileChannel channel, GripFilter filter, long recordCount) {
+        this.channel = channel;
+        this.filter = filter;
+        this.remainingRecords = recordCount;
+        buffer.flip();
+    }
+
+    public static RecordedGripCursor open(Path file, GripFilter filter) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long recordCount = RecordedGripSection.readRecordCount(channel, file);
+            channel.position(RecordedGripSection.HEADER_SIZE);
+            return new RecordedGripCursor(channel, filter, recordCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Stream<RecordedGrip> stream() {
+        Spliterator<RecordedGrip> records = Spliterators.spliteratorUnknownSize(
+                this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(records, false).onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && remainingRecords > 0) {
+            fillBuffer();
+            long recordedAt = buffer.getLong();
+            int sensorId = buffer.getInt();
+            int pressure = buffer.getInt();
+            remainingRecords--;
+            if (filter.matches(recordedAt, sensorId, pressure)) {
+                next = new RecordedGrip(recordedAt, sensorId, pressure);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public RecordedGrip next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        RecordedGrip current = next;
+        next = null;
+        return current;
+    }
+
+    private void fillBuffer() {
+        if (buffer.remaining() >= RecordedGripSection.RECORD_SIZE) {
+            return;
+        }
+        try {
+            buffer.compact();
+            while (buffer.position() < RecordedGripSection.RECORD_SIZE) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("section ended before its last record");
+                }
+            }
+            buffer.flip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.study.books.cleancode.errorhandling.obj;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/* 섹션 파일을 메모리에 매핑해서 레코드를 그 자리에서 읽는 목록.
+    파일 형식(빅 엔디언)
+    - 헤더 16바이트 : magic(int) 'GRIP', version(int) 1, recordCount(long)
+    - 레코드 16바이트 : recordedAt(long), sensorId(int), pressure(int)
+    채널은 매핑한 뒤 바로 닫는다. 매핑은 채널과 상관없이 유효하다.
+    2GB 가 넘는 파일은 여러 조각으로 나눠 매핑한다. */
+public final class RecordedGripSection extends AbstractList<RecordedGrip> implements RandomAccess {
+
+    public static final int MAGIC = 0x47524950;
+    public static final int ROW_VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 16;
+
+    private static final int RECORDS_PER_CHUNK = Integer.MAX_VALUE / RECORD_SIZE;
+
+    private final MappedByteBuffer[] chunks;
+    private final int size;
+
+    private RecordedGripSection(MappedByteBuffer[] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    public static RecordedGripSection map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long recordCount = readRecordCount(channel, file);
+            if (recordCount > Integer.MAX_VALUE) {
+                throw new IOException("section " + file + " has too many records for a list: " + recordCount);
+            }
+            int chunkCount = (int) ((recordCount + RECORDS_PER_CHUNK - 1) / RECORDS_PER_CHUNK);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long firstRecord = (long) i * RECORDS_PER_CHUNK;
+                long records = Math.min(RECORDS_PER_CHUNK, recordCount - firstRecord);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + firstRecord * RECORD_SIZE, records * RECORD_SIZE);
+            }
+            return new RecordedGripSection(chunks, (int) recordCount);
+        }
+    }
+
+    static long readRecordCount(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("section " + file + " is shorter than its header");
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("not a recorded grip section: " + file);
+        }
+        int version = header.getInt();
+        if (version != ROW_VERSION) {
+            throw new IOException("unsupported section version " + version + " in " + file);
+        }
+        long recordCount = header.getLong();
+        long fileSize = channel.size();
+        if (recordCount < 0 || recordCount > (fileSize - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IOException("section " + file + " declares " + recordCount + " records but its "
+                    + fileSize + " bytes hold at most " + (fileSize - HEADER_SIZE) / RECORD_SIZE);
+        }
+        return recordCount;
+    }
+
+    @Override
+    public RecordedGrip get(int index) {
+        checkIndex(index);
+        ByteBuffer chunk = chunks[index / RECORDS_PER_CHUNK];
+        int offset = (index % RECORDS_PER_CHUNK) * RECORD_SIZE;
+        return new RecordedGrip(chunk.getLong(offset), chunk.getInt(offset + 8), chunk.getInt(offset + 12));
+    }
+
+    public long getRecordedAt(int index) {
+        checkIndex(index);
+        return chunks[index / RECORDS_PER_CHUNK].getLong((index % RECORDS_PER_CHUNK) * RECORD_SIZE);
+    }
+
+    public int getSensorId(int index) {
+        checkIndex(index);
+        return chunks[index / RECORDS_PER_CHUNK].getInt((index % RECORDS_PER_CHUNK) * RECORD_SIZE + 8);
+    }
+
+    public int getPressure(int index) {
+        checkIndex(index);
+        return chunks[index / RECORDS_PER_CHUNK].getInt((index % RECORDS_PER_CHUNK) * RECORD_SIZE + 12);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+    }
+
+}
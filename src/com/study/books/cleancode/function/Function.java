@@ -2,8 +2,25 @@ package com.study.books.cleancode.function;
 
 import com.study.books.cleancode.function.obj.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
 public class Function {
 
+    private static final int STREAM_BUFFER_BYTES = 8192;
+
     /* 의도를 분명히 표현하는 함수를 어떻게 구현할 수 있을까?
         함수에 어떤 속성을 부여해야 처음 일는 사람이 프로그램 내부를 직관적으로 파악할 수 있을까? */
 
@@ -14,12 +31,20 @@ public class Function {
         하지만 코드를 다듬고, 함수를 만들고, 이름을 바꾸고, 중복을 제거한다!
         메서드를 줄이고 순서를 바꾼다! */
 
+    /* SetupTeardownIncluder 의 생성자는 페이지 하나를 맡는 용도라 감춰 두었다.
+        바깥에서는 이 인스턴스로 render, renderSuite 를 부르고, 페이지마다 새 인스턴스가 따로 만들어진다. */
+    public SetupTeardownIncluder newSetupTeardownIncluder() {
+        return new SetupTeardownIncluder(null);
+    }
+
     public class SetupTeardownIncluder {
         private PageData pageData;
         private boolean isSuite;
         private WikiPage testPage;
-        private StringBuffer newPageContent;
+        private PageContentBuilder newPageContent;
+        private IncludeChain includeChain;
         private PageCrawler pageCrawler;
+        private Writer output;
 
         /* 함수 당 추장화 수준은 하나로!
             함수가 확실히 '한 가지' 작업만 하려면 함수 내 모든 문장의 추상화 수준이 동일해야 한다.
@@ -48,11 +73,64 @@ public class Function {
             return new SetupTeardownIncluder(pageData).render(isSuite);
         }
 
+        /* 페이지마다 새 SetupTeardownIncluder 를 만들기 때문에 페이지끼리 상태를 공유하지 않는다.
+            그래서 스위트의 페이지들을 나눠서 동시에 렌더링해도 순차 렌더링과 결과가 같다.
+            결과는 넘겨받은 페이지 순서대로 돌려준다. */
+        public List<String> renderSuite(List<PageData> pages) {
+            return renderSuite(pages, ForkJoinPool.commonPool());
+        }
+
+        public List<String> renderSuite(List<PageData> pages, ExecutorService executor) {
+            List<Future<String>> renderings = new ArrayList<>(pages.size());
+            for (PageData page : pages) {
+                renderings.add(executor.submit(() -> render(page, true)));
+            }
+            List<String> htmls = new ArrayList<>(pages.size());
+            for (Future<String> rendering : renderings) {
+                htmls.add(awaitRendering(rendering));
+            }
+            return htmls;
+        }
+
+        private String awaitRendering(Future<String> rendering) {
+            try {
+                return rendering.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        /* 스트리밍 렌더링
+            include 블록과 페이지 HTML 을 만들어지는 즉시 Writer 로 내보낸다.
+            페이지 전체를 문자열로 모으지 않으므로 페이지가 커져도 렌더링에 쓰는 힙은 일정하다.
+            출력은 render(PageData) 가 돌려주는 문자열과 같지만, 페이지 내용을 바꿔 두지는 않는다.
+            채널로 보낼 때도 같은 경로를 지나며, 인코딩은 고정 크기 바이트 버퍼 하나로 조각씩 한다. */
+        public void render(PageData pageData, Writer output) {
+            new SetupTeardownIncluder(pageData).render(false, output);
+        }
+
+        public void render(PageData pageData, WritableByteChannel channel) {
+            Writer output = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), STREAM_BUFFER_BYTES);
+            render(pageData, output);
+            flush(output);
+        }
+
+        private void flush(Writer output) {
+            try {
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
         private SetupTeardownIncluder(PageData pageData) {
             this.pageData = pageData;
-            testPage = pageData.getWikiPage();
-            pageCrawler = testPage.getPageCrawler();
-            newPageContent = new StringBuffer();
         }
 
         private String render(boolean isSuite) {
@@ -69,18 +147,31 @@ public class Function {
             return pageData.getHtml();
         }
 
+        private void render(boolean isSuite, Writer output) {
+            this.isSuite = isSuite;
+            this.output = output;
+            if (isTestPage()) {
+                includeSetupAndTeardownPages();
+            } else {
+                pageData.writeHtml(output);
+            }
+        }
+
         private boolean isTestPage() {
             /* 한가지만 해라!
                 함수는 한 가지를 해야 한다. 그 한 가지를 잘 해야 한다. 그 한 가지만을 해야한다.
                 지정된 함수 이름 아래에서 추상화 수준이 하나인 단계만 수행한다면 그 함수는 한 가지 작업만 한다.
                 의미 있는 이름으로 다른 함수를 추출할 수 있다면 그 함수는 여러 작업을 하는 셈! */
-            return pageData.hasAttribute("Test");
+            return pageData.isTestPage();
         }
 
         private void includeSetupAndTeardownPages() {
             /* 반복하지 마라!
                 같은 내용을 반복하면 코드 길이가 늘어날 뿐 아니라 알고리즘이 변하면 네 곳이나 손봐야 한다.
                 아래와 같이 include 방법으로 중복을 없앤다. */
+            testPage = pageData.getWikiPage();
+            pageCrawler = testPage.getPageCrawler();
+            includeChain = new IncludeChain();
             includeSetupPages();
             includePageCount();
             includeTeardownPages();
@@ -137,7 +228,42 @@ public class Function {
         }
 
         private void updatePageContent() {
-            pageData.setContent(newPageContent.toString());
+            PageContent includeBlock = findIncludeBlock();
+            if (output == null) {
+                pageData.setContent(includeBlock);
+            } else {
+                writeIncludeBlock(includeBlock);
+            }
+        }
+
+        /* 같은 SetUp/TearDown 체인을 물려받은 페이지들은 이미 만든 include 블록을 그대로 쓴다.
+            캐시는 페이지 트리마다 따로 있고, 체인에 속한 페이지가 바뀌면 그 페이지에 의존한 블록만 빠진다. */
+        private PageContent findIncludeBlock() {
+            RenderedPageCache includeBlocks = testPage.getHierarchyIndex().getIncludeBlockCache();
+            Object key = includeChain.cacheKey();
+            PageContent includeBlock = includeBlocks.get(key);
+            if (includeBlock == null) {
+                includeBlock = buildIncludeBlock();
+                includeBlocks.put(key, includeBlock, includeChain.getPages());
+            }
+            return includeBlock;
+        }
+
+        private PageContent buildIncludeBlock() {
+            newPageContent = PageContentBuilder.acquire();
+            for (int i = 0; i < includeChain.size(); i++) {
+                String pagePathName = getPathNameForPage(includeChain.getPage(i));
+                buildIncludeDirective(pagePathName, includeChain.getArg(i));
+            }
+            return newPageContent.detach();
+        }
+
+        private void writeIncludeBlock(PageContent includeBlock) {
+            try {
+                includeBlock.writeTo(output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
 
         private void include(String pageNames, String arg) {
@@ -179,8 +305,7 @@ public class Function {
                 - 함수 이름에 키워드를 추가하는 형식, 함수 이름에 인수 이름을 넣는다. */
             WikiPage inheritedPage = findInheritedPage(pageNames);
             if (inheritedPage != null) {
-                String pagePathName = getPathNameForPage(inheritedPage);
-                buildIncludeDirective(pagePathName, arg);
+                includeChain.add(inheritedPage, arg);
             }
         }
 
@@ -228,16 +353,22 @@ public class Function {
         }
     }
 
+    /* 직원이 많을 때는 유형별로 모아서 한꺼번에 계산한다.
+        결과는 employees 와 같은 순서로 pay 배열에 최소 화폐 단위로 채운다. */
+    public void calculatePay(List<? extends Employee> employees, long[] pay) {
+        PayrollBatch.calculatePay(employees, pay);
+    }
+
     private Money calculateCommissionedPay(Employee e) {
-        return new Money();
+        return Money.of(e.calculatePayAmount());
     }
 
     private Money calculateHourlyPay(Employee e) {
-        return new Money();
+        return Money.of(e.calculatePayAmount());
     }
 
     private Money calculateSalariedPay(Employee e) {
-        return new Money();
+        return Money.of(e.calculatePayAmount());
     }
 
     public interface EmployeeAfterFactory {
@@ -264,4 +395,66 @@ public class Function {
         }
     }
 
+    /* 급여 계산처럼 직원 객체를 잠깐만 쓰는 작업을 위한 팩토리.
+        switch 대신 Employee.Type 순서(ordinal)로 찾는 표를 쓰고,
+        스레드마다 유형별 인스턴스를 하나씩 두고 레코드만 다시 채워서 돌려준다.
+        돌려받은 직원은 같은 스레드에서 같은 유형을 다시 만들 때까지만 유효하다. */
+    public class PooledEmployeeAfterFactory implements EmployeeAfterFactory {
+        private final EmployeeKind[] kinds = new EmployeeKind[Employee.Type.values().length];
+        private final ThreadLocal<Employee[]> pool = ThreadLocal.withInitial(() -> new Employee[kinds.length]);
+
+        public PooledEmployeeAfterFactory() {
+            kinds[Employee.Type.COMMISSIONED.ordinal()] = new EmployeeKind(
+                    CommissionedEmployee::new, (e, r) -> ((CommissionedEmployee) e).load(r));
+            kinds[Employee.Type.HOURLY.ordinal()] = new EmployeeKind(
+                    HourlyEmployee::new, (e, r) -> ((HourlyEmployee) e).load(r));
+            kinds[Employee.Type.SALARIED.ordinal()] = new EmployeeKind(
+                    SalariedEmployee::new, (e, r) -> ((SalariedEmployee) e).load(r));
+        }
+
+        @Override
+        public Employee makeEmployee(EmployeeRecord r) {
+            return makeEmployee(r, pool.get());
+        }
+
+        public Iterable<Employee> makeEmployees(Iterable<EmployeeRecord> records) {
+            return () -> new Iterator<Employee>() {
+                private final Iterator<EmployeeRecord> recordIterator = records.iterator();
+                private final Employee[] batchPool = new Employee[kinds.length];
+
+                @Override
+                public boolean hasNext() {
+                    return recordIterator.hasNext();
+                }
+
+                @Override
+                public Employee next() {
+                    return makeEmployee(recordIterator.next(), batchPool);
+                }
+            };
+        }
+
+        private Employee makeEmployee(EmployeeRecord r, Employee[] reusable) {
+            int ordinal = r.type.ordinal();
+            Employee employee = reusable[ordinal];
+            if (employee == null) {
+                employee = kinds[ordinal].creator.makeEmployee(r);
+                reusable[ordinal] = employee;
+            } else {
+                kinds[ordinal].loader.accept(employee, r);
+            }
+            return employee;
+        }
+    }
+
+    private static class EmployeeKind {
+        private final EmployeeAfterFactory creator;
+        private final BiConsumer<Employee, EmployeeRecord> loader;
+
+        private EmployeeKind(EmployeeAfterFactory creator, BiConsumer<Employee, EmployeeRecord> loader) {
+            this.creator = creator;
+            this.loader = loader;
+        }
+    }
+
 }
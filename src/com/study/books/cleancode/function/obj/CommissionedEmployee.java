@@ -1,19 +1,62 @@
 package com.study.books.cleancode.function.obj;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
 public class CommissionedEmployee extends Employee
 {
+    private static final int BASIS_POINTS = 10000;
+    private static final LocalDate FIRST_PAYDAY = LocalDate.of(2000, 1, 7);
+
+    private long salary;
+    private long sales;
+    private int commissionRate;
+
     public CommissionedEmployee(EmployeeRecord r) {
         super();
+        type = Type.COMMISSIONED;
+        load(r);
+    }
+
+    public final void load(EmployeeRecord r) {
+        id = r.id;
+        salary = r.salary;
+        sales = r.sales;
+        commissionRate = r.commissionRate;
+    }
+
+    public static long calculatePay(long salary, long sales, int commissionRate) {
+        return Math.addExact(salary, Math.multiplyExact(sales, commissionRate) / BASIS_POINTS);
+    }
+
+    public static LocalDate nextBiweeklyPayday(LocalDate from) {
+        LocalDate friday = from.with(TemporalAdjusters.nextOrSame(DayOfWeek.FRIDAY));
+        long weeks = ChronoUnit.WEEKS.between(FIRST_PAYDAY, friday);
+        return weeks % 2 == 0 ? friday : friday.plusWeeks(1);
+    }
+
+    public long getSalary() {
+        return salary;
+    }
+
+    public long getSales() {
+        return sales;
+    }
+
+    public int getCommissionRate() {
+        return commissionRate;
     }
 
     @Override
-    public boolean isPayday() {
-        return false;
+    public LocalDate nextPayday(LocalDate from) {
+        return nextBiweeklyPayday(from);
     }
 
     @Override
-    public Money calculatePay() {
-        return null;
+    public long calculatePayAmount() {
+        return calculatePay(salary, sales, commissionRate);
     }
 
     @Override
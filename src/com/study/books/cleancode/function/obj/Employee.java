@@ -1,14 +1,35 @@
 package com.study.books.cleancode.function.obj;
 
+import java.time.LocalDate;
+
 public abstract class Employee {
 
     public Type type;
+    protected long id;
 
-    public abstract boolean isPayday();
-    public abstract Money calculatePay();
+    public abstract LocalDate nextPayday(LocalDate from);
+    public abstract long calculatePayAmount();
     public abstract void deliverPay();
 
-    public abstract int getPay();
+    public long getId() {
+        return id;
+    }
+
+    public boolean isPayday() {
+        return isPayday(LocalDate.now());
+    }
+
+    public boolean isPayday(LocalDate date) {
+        return nextPayday(date).equals(date);
+    }
+
+    public Money calculatePay() {
+        return Money.of(calculatePayAmount());
+    }
+
+    public int getPay() {
+        return Math.toIntExact(calculatePayAmount());
+    }
 
     public enum Type {
         COMMISSIONED, HOURLY, SALARIED
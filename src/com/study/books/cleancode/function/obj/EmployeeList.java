@@ -0,0 +1,71 @@
+package com.study.books.cleancode.function.obj;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/* 직원을 배열에 담은 불변 목록.
+    비어 있을 때는 null 이나 새 목록 대신 공유하는 EMPTY 를 돌려준다.
+    급여 합계는 long 으로 쌓으며 넘치면 ArithmeticException 을 던진다. */
+public final class EmployeeList extends AbstractList<Employee> implements RandomAccess {
+
+    private static final EmployeeList EMPTY = new EmployeeList(new Employee[0]);
+
+    private final Employee[] employees;
+
+    private EmployeeList(Employee[] employees) {
+        this.employees = employees;
+    }
+
+    public static EmployeeList empty() {
+        return EMPTY;
+    }
+
+    public static EmployeeList of(Employee... employees) {
+        return wrap(employees.clone());
+    }
+
+    public static EmployeeList copyOf(Collection<? extends Employee> employees) {
+        if (employees instanceof EmployeeList) {
+            return (EmployeeList) employees;
+        }
+        return wrap(employees.toArray(new Employee[0]));
+    }
+
+    private static EmployeeList wrap(Employee[] employees) {
+        if (employees.length == 0) {
+            return EMPTY;
+        }
+        for (Employee e : employees) {
+            if (e == null) {
+                throw new IllegalArgumentException("employee list must not contain null");
+            }
+        }
+        return new EmployeeList(employees);
+    }
+
+    @Override
+    public Employee get(int index) {
+        return employees[index];
+    }
+
+    @Override
+    public int size() {
+        return employees.length;
+    }
+
+    public long totalPay() {
+        long total = 0;
+        for (int i = 0; i < employees.length; i++) {
+            total = Math.addExact(total, employees[i].calculatePayAmount());
+        }
+        return total;
+    }
+
+    public long parallelTotalPay() {
+        return IntStream.range(0, employees.length).parallel()
+                .mapToLong(i -> employees[i].calculatePayAmount())
+                .reduce(0L, Math::addExact);
+    }
+}
@@ -2,9 +2,15 @@ package com.study.books.cleancode.function.obj;
 
 public class EmployeeRecord {
 
+    public long id;
     public Employee.Type type;
     public boolean flags = true;
     public int age = 65;
+    public long salary;
+    public long hourlyRate;
+    public int hoursWorked;
+    public long sales;
+    public int commissionRate;
 
     public boolean isEligibleForFullBenefits() {
         return true;
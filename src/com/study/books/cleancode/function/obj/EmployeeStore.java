@@ -0,0 +1,198 @@
+package com.study.books.cleancode.function.obj;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/* 직원 한 명을 객체 하나로 두지 않고 필드마다 기본형 배열 하나씩(열 단위)으로 저장한다.
+    전체 직원을 훑는 검사는 배열만 읽으므로 객체를 하나도 만들지 않는다.
+    Employee 가 꼭 필요하면 view() 로 위치만 옮겨 다니는 플라이웨이트를 받는다. */
+public class EmployeeStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Employee.Type[] TYPES = Employee.Type.values();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private long[] flags = new long[INITIAL_CAPACITY / Long.SIZE];
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private long[] salaries = new long[INITIAL_CAPACITY];
+    private long[] hourlyRates = new long[INITIAL_CAPACITY];
+    private int[] hoursWorked = new int[INITIAL_CAPACITY];
+    private long[] sales = new long[INITIAL_CAPACITY];
+    private int[] commissionRates = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public int add(EmployeeRecord r) {
+        ensureCapacity(size + 1);
+        int index = size++;
+        ids[index] = r.id;
+        types[index] = (byte) r.type.ordinal();
+        setFlag(index, r.flags);
+        ages[index] = r.age;
+        salaries[index] = r.salary;
+        hourlyRates[index] = r.hourlyRate;
+        hoursWorked[index] = r.hoursWorked;
+        sales[index] = r.sales;
+        commissionRates[index] = r.commissionRate;
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getId(int index) {
+        return ids[checkIndex(index)];
+    }
+
+    public Employee.Type getType(int index) {
+        return TYPES[types[checkIndex(index)]];
+    }
+
+    public boolean getFlags(int index) {
+        checkIndex(index);
+        return (flags[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public int getAge(int index) {
+        return ages[checkIndex(index)];
+    }
+
+    /* EmployeeRecord.isEligibleForFullBenefits() 와 같은 규칙을 쓴다 */
+    public boolean isEligibleForFullBenefits(int index) {
+        checkIndex(index);
+        return true;
+    }
+
+    public int countEligibleForFullBenefits() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (isEligibleForFullBenefits(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void forEachEligibleForFullBenefits(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            if (isEligibleForFullBenefits(i)) {
+                action.accept(i);
+            }
+        }
+    }
+
+    public long calculatePayAmount(int index) {
+        checkIndex(index);
+        switch (TYPES[types[index]]) {
+            case COMMISSIONED:
+                return CommissionedEmployee.calculatePay(salaries[index], sales[index], commissionRates[index]);
+            case HOURLY:
+                return HourlyEmployee.calculatePay(hourlyRates[index], hoursWorked[index]);
+            case SALARIED:
+                return SalariedEmployee.calculatePay(salaries[index]);
+            default:
+                throw new IllegalStateException("unknown employee type at " + index);
+        }
+    }
+
+    public LocalDate nextPayday(int index, LocalDate from) {
+        checkIndex(index);
+        switch (TYPES[types[index]]) {
+            case COMMISSIONED:
+                return CommissionedEmployee.nextBiweeklyPayday(from);
+            case HOURLY:
+                return HourlyEmployee.nextWeeklyPayday(from);
+            case SALARIED:
+                return SalariedEmployee.nextMonthlyPayday(from);
+            default:
+                throw new IllegalStateException("unknown employee type at " + index);
+        }
+    }
+
+    public void calculatePay(long[] pay) {
+        if (pay.length < size) {
+            throw new IllegalArgumentException("pay array too small: " + pay.length + " < " + size);
+        }
+        for (int i = 0; i < size; i++) {
+            pay[i] = calculatePayAmount(i);
+        }
+    }
+
+    public View view(int index) {
+        return new View().moveTo(index);
+    }
+
+    private void setFlag(int index, boolean flag) {
+        if (flag) {
+            flags[index >>> 6] |= 1L << index;
+        } else {
+            flags[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= types.length) {
+            return;
+        }
+        int capacity = Math.max(types.length * 2, required);
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        flags = Arrays.copyOf(flags, (capacity + Long.SIZE - 1) / Long.SIZE);
+        ages = Arrays.copyOf(ages, capacity);
+        salaries = Arrays.copyOf(salaries, capacity);
+        hourlyRates = Arrays.copyOf(hourlyRates, capacity);
+        hoursWorked = Arrays.copyOf(hoursWorked, capacity);
+        sales = Arrays.copyOf(sales, capacity);
+        commissionRates = Arrays.copyOf(commissionRates, capacity);
+    }
+
+    /* 저장소의 한 위치를 가리키는 Employee. moveTo() 로 위치를 옮겨 가며 재사용한다. */
+    public class View extends Employee {
+
+        private int index;
+
+        public View moveTo(int index) {
+            this.index = checkIndex(index);
+            type = TYPES[types[index]];
+            id = ids[index];
+            return this;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getAge() {
+            return ages[index];
+        }
+
+        public boolean isEligibleForFullBenefits() {
+            return EmployeeStore.this.isEligibleForFullBenefits(index);
+        }
+
+        @Override
+        public LocalDate nextPayday(LocalDate from) {
+            return EmployeeStore.this.nextPayday(index, from);
+        }
+
+        @Override
+        public long calculatePayAmount() {
+            return EmployeeStore.this.calculatePayAmount(index);
+        }
+
+        @Override
+        public void deliverPay() {
+
+        }
+    }
+
+}
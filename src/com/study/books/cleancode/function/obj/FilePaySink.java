@@ -0,0 +1,59 @@
+package com.study.books.cleancode.function.obj;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/* 지급 내역을 한 줄에 하나씩 파일 끝에 덧붙인다: 직원ID,급여기간,통화,금액
+    배치 하나를 한 번에 써서 디스크에 내리고, 실패하면 배치 앞까지 잘라 내므로 재시도해도 배치가 반쯤 또는 두 번 남지 않는다. */
+public class FilePaySink implements PaySink, Closeable {
+
+    private final FileChannel channel;
+
+    public FilePaySink(Path file) throws IOException {
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void deliver(List<PayDelivery> batch) throws IOException {
+        StringBuilder lines = new StringBuilder(batch.size() * 32);
+        for (PayDelivery delivery : batch) {
+            lines.append(delivery.getEmployeeId()).append(',')
+                    .append(delivery.getPayPeriod()).append(',')
+                    .append(delivery.getAmount().getCurrency().getCurrencyCode()).append(',')
+                    .append(delivery.getAmount().getAmount()).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        long batchStart = channel.size();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            rollBack(batchStart, e);
+            throw e;
+        }
+    }
+
+    /* 쓰기나 force() 가 실패하면 배치를 쓰기 전 길이로 되돌려, 재시도가 같은 줄을 두 번 남기지 않게 한다 */
+    private void rollBack(long batchStart, IOException failure) {
+        try {
+            channel.truncate(batchStart);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -1,19 +1,56 @@
 package com.study.books.cleancode.function.obj;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
 public class HourlyEmployee extends Employee
 {
+    private static final int REGULAR_HOURS = 40;
+
+    private long hourlyRate;
+    private int hoursWorked;
+
     public HourlyEmployee(EmployeeRecord r) {
         super();
+        type = Type.HOURLY;
+        load(r);
+    }
+
+    public final void load(EmployeeRecord r) {
+        id = r.id;
+        hourlyRate = r.hourlyRate;
+        hoursWorked = r.hoursWorked;
+    }
+
+    public static long calculatePay(long hourlyRate, int hoursWorked) {
+        int overtimeHours = Math.max(0, hoursWorked - REGULAR_HOURS);
+        int regularHours = hoursWorked - overtimeHours;
+        long regularPay = Math.multiplyExact(hourlyRate, regularHours);
+        long overtimePay = Math.multiplyExact(Math.multiplyExact(hourlyRate, overtimeHours), 3) / 2;
+        return Math.addExact(regularPay, overtimePay);
+    }
+
+    public static LocalDate nextWeeklyPayday(LocalDate from) {
+        return from.with(TemporalAdjusters.nextOrSame(DayOfWeek.FRIDAY));
+    }
+
+    public long getHourlyRate() {
+        return hourlyRate;
+    }
+
+    public int getHoursWorked() {
+        return hoursWorked;
     }
 
     @Override
-    public boolean isPayday() {
-        return false;
+    public LocalDate nextPayday(LocalDate from) {
+        return nextWeeklyPayday(from);
     }
 
     @Override
-    public Money calculatePay() {
-        return null;
+    public long calculatePayAmount() {
+        return calculatePay(hourlyRate, hoursWorked);
     }
 
     @Override
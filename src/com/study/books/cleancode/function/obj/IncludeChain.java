@@ -0,0 +1,82 @@
+package com.study.books.cleancode.function.obj;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/* 한 페이지가 include 하는 상속 페이지들과 각 페이지의 버전, 인수를 순서대로 담는다.
+    같은 SetUp/TearDown 체인을 물려받는 페이지들은 같은 키가 되어 include 블록을 함께 쓴다.
+    조상 페이지가 바뀌면 버전이 달라지므로 예전 블록과 다른 키가 된다.
+    캐시 키에는 페이지 대신 트리 안의 페이지 번호만 담으므로, 캐시가 지운 페이지를 붙잡지 않는다. */
+public final class IncludeChain {
+
+    private final List<WikiPage> pages = new ArrayList<>();
+    private final List<String> args = new ArrayList<>();
+
+    public void add(WikiPage page, String arg) {
+        pages.add(page);
+        args.add(arg);
+    }
+
+    public int size() {
+        return pages.size();
+    }
+
+    public WikiPage getPage(int index) {
+        return pages.get(index);
+    }
+
+    public String getArg(int index) {
+        return args.get(index);
+    }
+
+    public List<WikiPage> getPages() {
+        return pages;
+    }
+
+    public Object cacheKey() {
+        int size = pages.size();
+        long[] ids = new long[size];
+        long[] versions = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = pages.get(i).getId();
+            versions[i] = pages.get(i).getVersion();
+        }
+        return new Key(ids, versions, args.toArray(new String[0]));
+    }
+
+    private static final class Key {
+        private final long[] ids;
+        private final long[] versions;
+        private final String[] args;
+        private final int hash;
+
+        private Key(long[] ids, long[] versions, String[] args) {
+            this.ids = ids;
+            this.versions = versions;
+            this.args = args;
+            this.hash = 31 * (31 * Arrays.hashCode(ids) + Arrays.hashCode(versions)) + Arrays.hashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                    && Arrays.equals(ids, other.ids)
+                    && Arrays.equals(versions, other.versions)
+                    && Arrays.equals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.study.books.cleancode.function.obj;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/* (조상 페이지 경로, include 이름) 으로 그 조상에서 시작한 상속 페이지 탐색 결과를 기억한다.
+    찾지 못한 결과(null)도 기억해야 같은 조상을 다시 뒤지지 않는다.
+    계층의 페이지가 바뀌면 그 부모 아래의 결과를 모두 버린다.
+    여러 스레드가 같은 키를 동시에 놓치면 탐색은 한 번만 하고 나머지는 그 결과를 기다린다.
+    - hit : 기억한 결과를 바로 돌려준 횟수
+    - wait : 다른 스레드가 진행 중인 탐색을 기다려 받은 횟수
+    - miss : 직접 탐색한 횟수 */
+public class InheritedPageCache {
+
+    private static final WikiPage NOT_FOUND = new WikiPage();
+
+    private final int capacity;
+    private final Map<Key, WikiPage> pages;
+    private final ConcurrentHashMap<Key, FutureTask<WikiPage>> lookups = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long generation;
+
+    public InheritedPageCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.pages = new LinkedHashMap<Key, WikiPage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, WikiPage> eldest) {
+                return size() > InheritedPageCache.this.capacity;
+            }
+        };
+    }
+
+    public WikiPage get(WikiPagePath ancestorPath, String pageName, Supplier<WikiPage> finder) {
+        Key key = new Key(ancestorPath, pageName);
+        long startGeneration;
+        synchronized (this) {
+            WikiPage cached = pages.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached == NOT_FOUND ? null : cached;
+            }
+            startGeneration = generation;
+        }
+        FutureTask<WikiPage> lookup = new FutureTask<>(finder::get);
+        FutureTask<WikiPage> runningLookup = lookups.putIfAbsent(key, lookup);
+        if (runningLookup != null) {
+            waits.increment();
+            return awaitLookup(runningLookup);
+        }
+        misses.increment();
+        try {
+            lookup.run();
+            WikiPage found = awaitLookup(lookup);
+            synchronized (this) {
+                if (startGeneration == generation) {
+                    pages.put(key, found == null ? NOT_FOUND : found);
+                }
+            }
+            return found;
+        } finally {
+            lookups.remove(key, lookup);
+        }
+    }
+
+    private WikiPage awaitLookup(FutureTask<WikiPage> lookup) {
+        try {
+            return lookup.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public synchronized void invalidate(WikiPagePath changedPagePath) {
+        WikiPagePath affectedPath = changedPagePath.parentPath();
+        Iterator<Key> keys = pages.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().ancestorPath.startsWith(affectedPath)) {
+                keys.remove();
+            }
+        }
+        lookups.keySet().removeIf(key -> key.ancestorPath.startsWith(affectedPath));
+        generation++;
+    }
+
+    public synchronized void clear() {
+        pages.clear();
+        lookups.clear();
+        generation++;
+    }
+
+    public synchronized int size() {
+        return pages.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getWaitCount() {
+        return waits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private static final class Key {
+        private final WikiPagePath ancestorPath;
+        private final String pageName;
+
+        private Key(WikiPagePath ancestorPath, String pageName) {
+            this.ancestorPath = ancestorPath;
+            this.pageName = pageName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return ancestorPath.equals(other.ancestorPath) && Objects.equals(pageName, other.pageName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * ancestorPath.hashCode() + Objects.hashCode(pageName);
+        }
+    }
+
+}
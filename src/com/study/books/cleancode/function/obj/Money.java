@@ -1,4 +1,141 @@
 package com.study.books.cleancode.function.obj;
 
-public class Money {
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Currency;
+
+/* 금액은 최소 화폐 단위(예: 센트)의 long 과 통화로 나타내는 불변 값이다.
+    모든 연산은 넘침을 검사하고, 넘치면 ArithmeticException 을 던진다.
+    0 과 작은 금액은 미리 만들어 둔 인스턴스를 돌려준다. */
+public final class Money implements Comparable<Money> {
+
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+    private static final int CACHED_AMOUNTS = 1024;
+    private static final Money[] cache = new Money[CACHED_AMOUNTS];
+
+    static {
+        for (int amount = 0; amount < CACHED_AMOUNTS; amount++) {
+            cache[amount] = new Money(amount, DEFAULT_CURRENCY);
+        }
+    }
+
+    private final long amount;
+    private final Currency currency;
+
+    private Money(long amount, Currency currency) {
+        this.amount = amount;
+        this.currency = currency;
+    }
+
+    public static Money zero() {
+        return cache[0];
+    }
+
+    public static Money of(long amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    public static Money of(long amount, Currency currency) {
+        if (currency == DEFAULT_CURRENCY && amount >= 0 && amount < CACHED_AMOUNTS) {
+            return cache[(int) amount];
+        }
+        return new Money(amount, currency);
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public Money add(Money other) {
+        checkSameCurrency(other);
+        return of(Math.addExact(amount, other.amount), currency);
+    }
+
+    public Money subtract(Money other) {
+        checkSameCurrency(other);
+        return of(Math.subtractExact(amount, other.amount), currency);
+    }
+
+    public Money multiply(long factor) {
+        return of(Math.multiplyExact(amount, factor), currency);
+    }
+
+    /* 비율대로 나누고 나머지는 몫을 버릴 때 잘려 나간 부분이 큰 몫부터 한 단위씩 얹어서 합계가 원래 금액과 정확히 같게 한다.
+        잘려 나간 부분이 같으면 앞쪽이 먼저 받는다. 비율이 0 인 몫은 잘려 나간 부분이 없으므로 언제나 0 이다. */
+    public Money[] allocate(long... ratios) {
+        long totalRatio = 0;
+        for (long ratio : ratios) {
+            if (ratio < 0) {
+                throw new IllegalArgumentException("ratio must not be negative: " + ratio);
+            }
+            totalRatio = Math.addExact(totalRatio, ratio);
+        }
+        if (totalRatio == 0) {
+            throw new IllegalArgumentException("ratios must not all be zero");
+        }
+        long[] shares = new long[ratios.length];
+        long[] fractions = new long[ratios.length];
+        long remainder = amount;
+        for (int i = 0; i < ratios.length; i++) {
+            long scaled = Math.multiplyExact(amount, ratios[i]);
+            shares[i] = Math.floorDiv(scaled, totalRatio);
+            fractions[i] = Math.floorMod(scaled, totalRatio);
+            remainder -= shares[i];
+        }
+        Integer[] order = new Integer[ratios.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(fractions[b], fractions[a]));
+        for (int i = 0; remainder > 0; i++) {
+            shares[order[i]]++;
+            remainder--;
+        }
+        Money[] results = new Money[shares.length];
+        for (int i = 0; i < shares.length; i++) {
+            results[i] = of(shares[i], currency);
+        }
+        return results;
+    }
+
+    private void checkSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkSameCurrency(other);
+        return Long.compare(amount, other.amount);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        Money other = (Money) o;
+        return amount == other.amount && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(amount) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        int fractionDigits = Math.max(0, currency.getDefaultFractionDigits());
+        return currency.getCurrencyCode() + " " + BigDecimal.valueOf(amount, fractionDigits).toPlainString();
+    }
+
 }
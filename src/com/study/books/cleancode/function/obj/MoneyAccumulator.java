@@ -0,0 +1,51 @@
+package com.study.books.cleancode.function.obj;
+
+import java.util.Currency;
+
+/* 많은 금액을 더할 때 중간 Money 를 만들지 않고 long 하나에 모은다.
+    넘침은 Money 와 똑같이 검사한다. 한 스레드에서만 쓴다. */
+public final class MoneyAccumulator {
+
+    private final Currency currency;
+    private long total;
+
+    public MoneyAccumulator() {
+        this(Money.DEFAULT_CURRENCY);
+    }
+
+    public MoneyAccumulator(Currency currency) {
+        this.currency = currency;
+    }
+
+    public MoneyAccumulator add(long amount) {
+        total = Math.addExact(total, amount);
+        return this;
+    }
+
+    public MoneyAccumulator add(Money money) {
+        if (!currency.equals(money.getCurrency())) {
+            throw new IllegalArgumentException("currency mismatch: " + currency + " and " + money.getCurrency());
+        }
+        return add(money.getAmount());
+    }
+
+    public MoneyAccumulator addAll(long[] amounts) {
+        for (long amount : amounts) {
+            add(amount);
+        }
+        return this;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Money toMoney() {
+        return Money.of(total, currency);
+    }
+
+    public void reset() {
+        total = 0;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.study.books.cleancode.function.obj;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/* PageContentBuilder 가 내용 길이에 딱 맞게 복사해 넘긴 배열을 다시 복사하지 않고 감싼다.
+    빈 내용은 모두 같은 인스턴스를 쓴다.
+    문자열이 필요할 때 한 번만 만들고 기억한다. */
+public final class PageContent implements CharSequence {
+
+    static final PageContent EMPTY = new PageContent(new char[0], 0);
+
+    private final char[] chars;
+    private final int offset;
+    private final int length;
+    private String string;
+
+    PageContent(char[] chars, int length) {
+        this(chars, 0, length);
+    }
+
+    private PageContent(char[] chars, int offset, int length) {
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return chars[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        }
+        return new PageContent(chars, offset + start, end - start);
+    }
+
+    public void writeTo(Writer output) throws IOException {
+        output.write(chars, offset, length);
+    }
+
+    @Override
+    public String toString() {
+        if (string == null) {
+            string = new String(chars, offset, length);
+        }
+        return string;
+    }
+
+}
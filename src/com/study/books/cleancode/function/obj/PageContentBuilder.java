@@ -0,0 +1,59 @@
+package com.study.books.cleancode.function.obj;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/* include 파이프라인 전용 버퍼. StringBuffer 와 달리 동기화하지 않는다.
+    스레드마다 하나씩 빌려 쓰고, 버퍼는 페이지가 바뀌어도 버리지 않고 계속 쓴다.
+    detach() 는 내용 길이에 딱 맞는 배열 하나로 복사해 넘기므로 페이지마다 새로 잡는 배열은 그 하나뿐이다.
+    내용이 비었으면 아무것도 잡지 않고 공유하는 빈 내용을 돌려준다.
+    getAllocatedBufferCount() 는 버퍼를 키운 횟수와 detach() 가 잡은 배열 수를 합해서 센다. */
+public class PageContentBuilder {
+
+    private static final int INITIAL_CAPACITY = 128;
+    private static final ThreadLocal<PageContentBuilder> pool = ThreadLocal.withInitial(PageContentBuilder::new);
+    private static final LongAdder allocatedBuffers = new LongAdder();
+
+    private char[] chars = new char[INITIAL_CAPACITY];
+    private int length;
+
+    public static PageContentBuilder acquire() {
+        PageContentBuilder builder = pool.get();
+        builder.length = 0;
+        return builder;
+    }
+
+    public PageContentBuilder append(String text) {
+        int textLength = text.length();
+        ensureCapacity(length + textLength);
+        text.getChars(0, textLength, chars, length);
+        length += textLength;
+        return this;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public PageContent detach() {
+        if (length == 0) {
+            return PageContent.EMPTY;
+        }
+        PageContent content = new PageContent(Arrays.copyOf(chars, length), length);
+        allocatedBuffers.increment();
+        length = 0;
+        return content;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, required));
+            allocatedBuffers.increment();
+        }
+    }
+
+    public static long getAllocatedBufferCount() {
+        return allocatedBuffers.sum();
+    }
+
+}
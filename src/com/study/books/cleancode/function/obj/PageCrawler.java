@@ -1,9 +1,20 @@
 package com.study.books.cleancode.function.obj;
 
+import java.util.List;
+
 public class PageCrawler {
 
     public WikiPagePath getFullPath(WikiPage page) {
-        return new WikiPagePath();
+        return page.getFullPath();
+    }
+
+    /* 계층 색인의 노드만 훑으므로 페이지 내용을 불러오지 않는다 */
+    public List<WikiPage> getChildPages(WikiPage page) {
+        return page.getHierarchyIndex().listChildren(page.getFullPath());
+    }
+
+    public List<WikiPage> getPagesUnder(WikiPage page) {
+        return page.getHierarchyIndex().listSubtree(page.getFullPath());
     }
 
 }
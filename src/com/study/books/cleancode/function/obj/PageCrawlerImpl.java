@@ -2,8 +2,25 @@ package com.study.books.cleancode.function.obj;
 
 public class PageCrawlerImpl {
 
+    /* 자기 자식에 없으면 부모 경로를 키로 계층 색인에서 가장 가까운 조상 쪽 페이지를 찾는다.
+        색인은 경로 깊이만큼만 올라가고, 같은 부모 아래 테스트 페이지들은 키를 함께 쓰므로 스위트 전체에서 한 번만 찾는다. */
     public static WikiPage getInheritedPage(String pageName, WikiPage testPage) {
-        return new WikiPage();
+        WikiPage ownPage = testPage.getChildPage(pageName);
+        if (ownPage != null || testPage.isRoot()) {
+            return ownPage;
+        }
+        WikiPage parent = testPage.getParent();
+        WikiPagePath parentPath = parent.getPageCrawler().getFullPath(parent);
+        PageHierarchyIndex hierarchyIndex = testPage.getHierarchyIndex();
+        return hierarchyIndex.getInheritedPageCache().get(parentPath, pageName,
+                () -> hierarchyIndex.findNearestAncestor(parentPath, pageName));
+    }
+
+    public static void pageChanged(WikiPage page) {
+        WikiPagePath changedPagePath = page.getPageCrawler().getFullPath(page);
+        PageHierarchyIndex hierarchyIndex = page.getHierarchyIndex();
+        hierarchyIndex.getInheritedPageCache().invalidate(changedPagePath);
+        hierarchyIndex.getIncludeBlockCache().invalidate(changedPagePath);
     }
 
 }
@@ -1,19 +1,145 @@
 package com.study.books.cleancode.function.obj;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Supplier;
+
+/* 페이지, 내용은 처음 쓰일 때 불러온다.
+    속성은 미리 계산한 비트 집합으로 들고 있어서 테스트 페이지인지는 비트 하나로 확인한다. */
 public class PageData {
 
+    private static final int ALL_ATTRIBUTES = (1 << Attribute.values().length) - 1;
+    private static final int WRITE_CHUNK = 8192;
+
+    private final int attributes;
+    private Supplier<WikiPage> wikiPageLoader;
+    private WikiPage wikiPage;
+    private Supplier<? extends CharSequence> contentLoader;
+    private CharSequence content;
+
+    public PageData() {
+        this(WikiPage::new, ALL_ATTRIBUTES, () -> null);
+    }
+
+    public PageData(WikiPage wikiPage) {
+        this(() -> wikiPage, ALL_ATTRIBUTES, () -> null);
+    }
+
+    public PageData(Supplier<WikiPage> wikiPageLoader, int attributes, Supplier<? extends CharSequence> contentLoader) {
+        this.wikiPageLoader = wikiPageLoader;
+        this.attributes = attributes;
+        this.contentLoader = contentLoader;
+    }
+
+    public static int attributes(Attribute... attributes) {
+        int bits = 0;
+        for (Attribute attribute : attributes) {
+            bits |= attribute.bit();
+        }
+        return bits;
+    }
+
     public WikiPage getWikiPage() {
-        return new WikiPage();
+        if (wikiPageLoader != null) {
+            wikiPage = wikiPageLoader.get();
+            wikiPageLoader = null;
+        }
+        return wikiPage;
+    }
+
+    public String getContent() {
+        CharSequence loaded = loadContent();
+        return loaded == null ? null : loaded.toString();
     }
 
     public String getHtml() {
-        return null;
+        return getContent();
+    }
+
+    /* 내용을 문자열로 바꾸지 않고 내보낸다.
+        PageContent 나 String 이 아니면 고정 크기 배열 하나에 조각씩 옮겨 담아 쓴다. */
+    public void writeHtml(Writer output) {
+        CharSequence loaded = loadContent();
+        try {
+            if (loaded instanceof PageContent) {
+                ((PageContent) loaded).writeTo(output);
+            } else if (loaded instanceof String) {
+                output.write((String) loaded);
+            } else if (loaded != null) {
+                writeChunked(loaded, output);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeChunked(CharSequence text, Writer output) throws IOException {
+        int length = text.length();
+        char[] chunk = new char[Math.min(WRITE_CHUNK, length)];
+        for (int start = 0; start < length; start += chunk.length) {
+            int count = Math.min(chunk.length, length - start);
+            for (int i = 0; i < count; i++) {
+                chunk[i] = text.charAt(start + i);
+            }
+            output.write(chunk, 0, count);
+        }
+    }
+
+    private CharSequence loadContent() {
+        if (contentLoader != null) {
+            content = contentLoader.get();
+            contentLoader = null;
+        }
+        return content;
+    }
+
+    public boolean isTestPage() {
+        return hasAttribute(Attribute.TEST);
+    }
+
+    public boolean hasAttribute(Attribute attribute) {
+        return (attributes & attribute.bit()) != 0;
     }
 
     public boolean hasAttribute(String test) {
-        return true;
+        Attribute attribute = Attribute.named(test);
+        return attribute != null && hasAttribute(attribute);
+    }
+
+    public void setContent(String content) {
+        replaceContent(content);
     }
 
-    public void setContent(String toString) {
+    public void setContent(PageContent content) {
+        replaceContent(content);
+    }
+
+    private void replaceContent(CharSequence content) {
+        this.content = content;
+        this.contentLoader = null;
+    }
+
+    public enum Attribute {
+        TEST("Test"), SUITE("Suite"), EDIT("Edit"), PROPERTIES("Properties"), VERSIONS("Versions");
+
+        private final String attributeName;
+
+        Attribute(String attributeName) {
+            this.attributeName = attributeName;
+        }
+
+        private int bit() {
+            return 1 << ordinal();
+        }
+
+        private static Attribute named(String attributeName) {
+            for (Attribute attribute : values()) {
+                if (attribute.attributeName.equals(attributeName)) {
+                    return attribute;
+                }
+            }
+            return null;
+        }
     }
 }
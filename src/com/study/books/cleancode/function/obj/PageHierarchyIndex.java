@@ -0,0 +1,179 @@
+package com.study.books.cleancode.function.obj;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/* 페이지 경로를 조각 단위로 쌓은 트라이.
+    조상 방향 탐색은 경로 깊이만큼만 올라가고, 하위 목록은 페이지 내용을 건드리지 않고 노드만 훑는다.
+    페이지를 추가하거나 지울 때마다 해당 가지만 고친다.
+    상속 페이지 탐색 결과와 include 블록도 트리마다 따로 기억한다. 트리마다 루트 경로가 같으므로 전역으로 두면 결과가 섞인다. */
+public class PageHierarchyIndex {
+
+    private static final int INHERITED_PAGE_CACHE_CAPACITY = 10000;
+    private static final long INCLUDE_BLOCK_CACHE_BYTES = 16L * 1024 * 1024;
+
+    private final Node root = new Node(null, "");
+    private final InheritedPageCache inheritedPages = new InheritedPageCache(INHERITED_PAGE_CACHE_CAPACITY);
+    private final RenderedPageCache includeBlocks = new RenderedPageCache(INCLUDE_BLOCK_CACHE_BYTES);
+    private final AtomicLong nextPageId = new AtomicLong();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(WikiPagePath path, WikiPage page) {
+        lock.writeLock().lock();
+        try {
+            nodeFor(path).page = page;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(WikiPagePath path) {
+        lock.writeLock().lock();
+        try {
+            Node node = find(path);
+            if (node != null && node != root) {
+                node.parent.children.remove(node.name);
+                prune(node.parent);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public WikiPage get(WikiPagePath path) {
+        lock.readLock().lock();
+        try {
+            Node node = find(path);
+            return node == null ? null : node.page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public WikiPage findNearestAncestor(WikiPagePath path, String pageName) {
+        lock.readLock().lock();
+        try {
+            for (Node node = deepestExisting(path); node != null; node = node.parent) {
+                Node candidate = node.children.get(pageName);
+                if (candidate != null && candidate.page != null) {
+                    return candidate.page;
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public InheritedPageCache getInheritedPageCache() {
+        return inheritedPages;
+    }
+
+    public RenderedPageCache getIncludeBlockCache() {
+        return includeBlocks;
+    }
+
+    /* 트리 안에서 페이지마다 한 번만 쓰는 번호. 지웠다가 같은 경로에 다시 만든 페이지는 다른 번호를 받는다 */
+    long nextPageId() {
+        return nextPageId.getAndIncrement();
+    }
+
+    public List<WikiPage> listChildren(WikiPagePath path) {
+        lock.readLock().lock();
+        try {
+            List<WikiPage> pages = new ArrayList<>();
+            Node node = find(path);
+            if (node != null) {
+                for (Node child : node.children.values()) {
+                    if (child.page != null) {
+                        pages.add(child.page);
+                    }
+                }
+            }
+            return pages;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<WikiPage> listSubtree(WikiPagePath prefix) {
+        lock.readLock().lock();
+        try {
+            List<WikiPage> pages = new ArrayList<>();
+            Node start = find(prefix);
+            if (start == null) {
+                return pages;
+            }
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(start);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                if (node.page != null) {
+                    pages.add(node.page);
+                }
+                for (Node child : node.children.values()) {
+                    pending.push(child);
+                }
+            }
+            return pages;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Node nodeFor(WikiPagePath path) {
+        if (path.isRoot()) {
+            return root;
+        }
+        Node parent = nodeFor(path.parentPath());
+        return parent.children.computeIfAbsent(path.getName(), name -> new Node(parent, name));
+    }
+
+    private Node find(WikiPagePath path) {
+        if (path.isRoot()) {
+            return root;
+        }
+        Node parent = find(path.parentPath());
+        return parent == null ? null : parent.children.get(path.getName());
+    }
+
+    private Node deepestExisting(WikiPagePath path) {
+        if (path.isRoot()) {
+            return root;
+        }
+        Node parent = deepestExisting(path.parentPath());
+        if (parent.depth != path.depth() - 1) {
+            return parent;
+        }
+        Node node = parent.children.get(path.getName());
+        return node == null ? parent : node;
+    }
+
+    private void prune(Node node) {
+        for (Node current = node; current != root && current.page == null && current.children.isEmpty(); current = current.parent) {
+            current.parent.children.remove(current.name);
+        }
+    }
+
+    private static final class Node {
+        private final Node parent;
+        private final String name;
+        private final int depth;
+        private final Map<String, Node> children = new HashMap<>();
+        private WikiPage page;
+
+        private Node(Node parent, String name) {
+            this.parent = parent;
+            this.name = name;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+    }
+
+}
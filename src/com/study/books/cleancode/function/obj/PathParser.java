@@ -3,7 +3,7 @@ package com.study.books.cleancode.function.obj;
 public class PathParser {
 
     public static String render(WikiPagePath pagePath) {
-        return null;
+        return pagePath.render();
     }
 
 }
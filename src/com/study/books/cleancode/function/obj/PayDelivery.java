@@ -0,0 +1,37 @@
+package com.study.books.cleancode.function.obj;
+
+import java.time.LocalDate;
+
+public final class PayDelivery {
+
+    private final long employeeId;
+    private final LocalDate payPeriod;
+    private final Money amount;
+
+    public PayDelivery(long employeeId, LocalDate payPeriod, Money amount) {
+        this.employeeId = employeeId;
+        this.payPeriod = payPeriod;
+        this.amount = amount;
+    }
+
+    public static PayDelivery of(Employee employee, LocalDate payPeriod) {
+        return new PayDelivery(employee.getId(), payPeriod, employee.calculatePay());
+    }
+
+    public long getEmployeeId() {
+        return employeeId;
+    }
+
+    public LocalDate getPayPeriod() {
+        return payPeriod;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    String deliveryKey() {
+        return employeeId + "@" + payPeriod;
+    }
+
+}
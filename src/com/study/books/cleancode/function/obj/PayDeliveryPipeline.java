@@ -0,0 +1,276 @@
+package com.study.books.cleancode.function.obj;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/* 직원마다 동기로 deliverPay() 를 부르는 대신 지급 내역을 제한된 큐에 넣고,
+    개수나 시간 기준으로 묶은 배치를 여러 스레드가 PaySink 로 내보낸다.
+    - 큐나 진행 중인 배치가 가득 차면 submit() 이 기다린다(배압).
+    - 실패한 배치는 정해진 횟수만큼 간격을 늘려 가며 다시 보낸다.
+    - 같은 직원의 같은 급여 기간은 한 번만 보낸다. 이미 보냈거나 보내는 중이면 submit() 이 false 를 돌려준다. */
+public class PayDeliveryPipeline implements AutoCloseable {
+
+    private final PaySink sink;
+    private final Settings settings;
+    private final BlockingQueue<PayDelivery> queue;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Set<String> delivered = ConcurrentHashMap.newKeySet();
+    private final Semaphore flushPermits;
+    private final ExecutorService flushers;
+    private final Thread batcher;
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final ReadWriteLock shutdownLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    public PayDeliveryPipeline(PaySink sink) {
+        this(sink, new Settings());
+    }
+
+    public PayDeliveryPipeline(PaySink sink, Settings settings) {
+        this.sink = sink;
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(settings.queueCapacity);
+        this.flushPermits = new Semaphore(settings.flushThreads * 2);
+        this.flushers = Executors.newFixedThreadPool(settings.flushThreads, flusherThreads());
+        this.batcher = new Thread(this::collectBatches, "pay-delivery-batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+    }
+
+    /* close() 를 빠뜨려도 JVM 이 끝날 수 있도록 배처처럼 데몬 스레드로 만든다 */
+    private static ThreadFactory flusherThreads() {
+        AtomicInteger next = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "pay-delivery-flusher-" + next.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public boolean submit(Employee employee, LocalDate payPeriod) {
+        return submit(PayDelivery.of(employee, payPeriod));
+    }
+
+    /* 닫힘 확인과 큐에 넣기를 읽기 잠금 안에서 함께 한다.
+        close() 는 쓰기 잠금으로 closed 를 세우므로, 그 뒤에는 배처가 비운 큐에 새 항목이 들어오지 않는다. */
+    public boolean submit(PayDelivery delivery) {
+        shutdownLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("pay delivery pipeline is closed");
+            }
+            String key = delivery.deliveryKey();
+            if (!pending.add(key)) {
+                return false;
+            }
+            if (delivered.contains(key)) {
+                pending.remove(key);
+                return false;
+            }
+            try {
+                queue.put(delivery);
+            } catch (InterruptedException e) {
+                pending.remove(key);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while queueing pay for " + key, e);
+            }
+            return true;
+        } finally {
+            shutdownLock.readLock().unlock();
+        }
+    }
+
+    public boolean isDelivered(long employeeId, LocalDate payPeriod) {
+        return delivered.contains(new PayDelivery(employeeId, payPeriod, Money.zero()).deliveryKey());
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    @Override
+    public void close() {
+        shutdownLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            shutdownLock.writeLock().unlock();
+        }
+        try {
+            batcher.join();
+            flushers.shutdown();
+            flushers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while closing pay delivery pipeline", e);
+        }
+    }
+
+    private void collectBatches() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                List<PayDelivery> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    dispatch(batch);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<PayDelivery> nextBatch() throws InterruptedException {
+        List<PayDelivery> batch = new ArrayList<>(settings.batchSize);
+        PayDelivery first = queue.poll(settings.maxBatchDelayMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.maxBatchDelayMillis);
+        long remaining = deadline - System.nanoTime();
+        while (batch.size() < settings.batchSize && remaining > 0) {
+            PayDelivery next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                remaining = 0;
+            } else {
+                batch.add(next);
+                queue.drainTo(batch, settings.batchSize - batch.size());
+                remaining = deadline - System.nanoTime();
+            }
+        }
+        return batch;
+    }
+
+    private void dispatch(List<PayDelivery> batch) throws InterruptedException {
+        flushPermits.acquire();
+        flushers.execute(() -> {
+            try {
+                flush(batch);
+            } finally {
+                flushPermits.release();
+            }
+        });
+    }
+
+    private void flush(List<PayDelivery> batch) {
+        for (int attempt = 1; attempt <= settings.maxAttempts; attempt++) {
+            try {
+                sink.deliver(batch);
+                markDelivered(batch);
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (attempt == settings.maxAttempts || !backOff(attempt)) {
+                    markFailed(batch);
+                    return;
+                }
+                retryCount.increment();
+            }
+        }
+    }
+
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(settings.retryBackoffMillis * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void markDelivered(List<PayDelivery> batch) {
+        for (PayDelivery delivery : batch) {
+            String key = delivery.deliveryKey();
+            delivered.add(key);
+            pending.remove(key);
+        }
+        deliveredCount.add(batch.size());
+    }
+
+    private void markFailed(List<PayDelivery> batch) {
+        for (PayDelivery delivery : batch) {
+            pending.remove(delivery.deliveryKey());
+        }
+        failedCount.add(batch.size());
+    }
+
+    /* 파이프라인 설정. 인수가 많아지므로 인수 객체로 묶는다. */
+    public static class Settings {
+        private int queueCapacity = 10000;
+        private int batchSize = 500;
+        private long maxBatchDelayMillis = 100;
+        private int flushThreads = 4;
+        private int maxAttempts = 3;
+        private long retryBackoffMillis = 50;
+
+        public Settings queueCapacity(int queueCapacity) {
+            this.queueCapacity = positive("queueCapacity", queueCapacity);
+            return this;
+        }
+
+        public Settings batchSize(int batchSize) {
+            this.batchSize = positive("batchSize", batchSize);
+            return this;
+        }
+
+        public Settings maxBatchDelayMillis(long maxBatchDelayMillis) {
+            this.maxBatchDelayMillis = positive("maxBatchDelayMillis", maxBatchDelayMillis);
+            return this;
+        }
+
+        public Settings flushThreads(int flushThreads) {
+            this.flushThreads = positive("flushThreads", flushThreads);
+            return this;
+        }
+
+        public Settings maxAttempts(int maxAttempts) {
+            this.maxAttempts = positive("maxAttempts", maxAttempts);
+            return this;
+        }
+
+        public Settings retryBackoffMillis(long retryBackoffMillis) {
+            if (retryBackoffMillis < 0) {
+                throw new IllegalArgumentException("retryBackoffMillis must not be negative: " + retryBackoffMillis);
+            }
+            this.retryBackoffMillis = retryBackoffMillis;
+            return this;
+        }
+
+        private static int positive(String name, int value) {
+            return (int) positive(name, (long) value);
+        }
+
+        private static long positive(String name, long value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.study.books.cleancode.function.obj;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface PaySink {
+    void deliver(List<PayDelivery> batch) throws IOException;
+}
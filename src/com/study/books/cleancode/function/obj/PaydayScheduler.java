@@ -0,0 +1,132 @@
+package com.study.books.cleancode.function.obj;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/* 매일 모든 직원에게 isPayday() 를 묻는 대신, 다음 급여일 기준으로 날짜 칸(timing wheel)에 직원을 넣어 둔다.
+    시급, 월급, 수수료 직원은 각자의 바퀴를 쓴다.
+    하루를 진행하면 그날 칸에 든 직원만 꺼내므로 비용은 그날 급여를 받는 직원 수에 비례한다.
+    바퀴 범위를 넘는 먼 날짜는 따로 모아 두었다가 범위 안에 들어오면 옮긴다.
+    한 스레드에서만 쓴다. */
+public class PaydayScheduler {
+
+    private static final int SLOTS = 64;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final Map<Employee.Type, Wheel> wheels = new EnumMap<>(Employee.Type.class);
+    private long today;
+
+    public PaydayScheduler(LocalDate startDate) {
+        this.today = startDate.toEpochDay();
+        for (Employee.Type type : Employee.Type.values()) {
+            wheels.put(type, new Wheel());
+        }
+    }
+
+    public LocalDate getToday() {
+        return LocalDate.ofEpochDay(today);
+    }
+
+    public void schedule(Employee employee) {
+        schedule(employee, getToday());
+    }
+
+    private void schedule(Employee employee, LocalDate from) {
+        long payday = employee.nextPayday(from).toEpochDay();
+        wheels.get(employee.type).add(new Scheduled(employee, Math.max(payday, today)), today);
+    }
+
+    public List<Employee> due(Employee.Type type) {
+        List<Employee> dueEmployees = new ArrayList<>();
+        wheels.get(type).drain(today, dueEmployees);
+        return dueEmployees;
+    }
+
+    public List<Employee> due() {
+        List<Employee> dueEmployees = new ArrayList<>();
+        for (Wheel wheel : wheels.values()) {
+            wheel.drain(today, dueEmployees);
+        }
+        return dueEmployees;
+    }
+
+    /* 오늘 급여일인 직원에게 급여를 계산해 지급하고, 다음 급여일로 다시 넣은 뒤 하루를 넘긴다.
+        지급한 금액의 합계를 돌려준다. */
+    public Money runPayday() {
+        MoneyAccumulator total = new MoneyAccumulator();
+        LocalDate tomorrow = getToday().plusDays(1);
+        for (Employee employee : due()) {
+            total.add(employee.calculatePayAmount());
+            employee.deliverPay();
+            schedule(employee, tomorrow);
+        }
+        advance();
+        return total.toMoney();
+    }
+
+    public Money runPaydaysThrough(LocalDate lastDate) {
+        MoneyAccumulator total = new MoneyAccumulator();
+        while (today <= lastDate.toEpochDay()) {
+            total.add(runPayday());
+        }
+        return total.toMoney();
+    }
+
+    private void advance() {
+        today++;
+        for (Wheel wheel : wheels.values()) {
+            wheel.promote(today);
+        }
+    }
+
+    private static final class Wheel {
+        private final List<List<Scheduled>> slots = new ArrayList<>(SLOTS);
+        private final TreeMap<Long, List<Scheduled>> overflow = new TreeMap<>();
+
+        private Wheel() {
+            for (int i = 0; i < SLOTS; i++) {
+                slots.add(new ArrayList<>());
+            }
+        }
+
+        private void add(Scheduled scheduled, long today) {
+            if (scheduled.payday - today < SLOTS) {
+                slots.get((int) (scheduled.payday & SLOT_MASK)).add(scheduled);
+            } else {
+                overflow.computeIfAbsent(scheduled.payday, day -> new ArrayList<>()).add(scheduled);
+            }
+        }
+
+        private void drain(long today, List<Employee> dueEmployees) {
+            List<Scheduled> slot = slots.get((int) (today & SLOT_MASK));
+            for (Scheduled scheduled : slot) {
+                dueEmployees.add(scheduled.employee);
+            }
+            slot.clear();
+        }
+
+        private void promote(long today) {
+            long horizon = today + SLOTS - 1;
+            while (!overflow.isEmpty() && overflow.firstKey() <= horizon) {
+                for (Scheduled scheduled : overflow.pollFirstEntry().getValue()) {
+                    add(scheduled, today);
+                }
+            }
+        }
+    }
+
+    private static final class Scheduled {
+        private final Employee employee;
+        private final long payday;
+
+        private Scheduled(Employee employee, long payday) {
+            this.employee = employee;
+            this.payday = payday;
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.study.books.cleancode.function.obj;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/* 직원마다 switch 로 분기하고 Money 를 만드는 대신,
+    직원을 클래스별로 모아 기본형 열(column)로 옮긴 뒤 클래스마다 단순한 반복문으로 급여를 계산한다.
+    유형 코드는 다른 Employee 구현도 쓸 수 있으므로 열을 고를 때는 실제 클래스를 보고, 그 밖의 구현은 자기 계산을 쓴다.
+    결과는 호출자가 준비한 배열의 같은 위치에 최소 화폐 단위로 기록한다. */
+public class PayrollBatch {
+
+    public static void calculatePay(List<? extends Employee> employees, long[] pay) {
+        if (pay.length < employees.size()) {
+            throw new IllegalArgumentException(
+                    "pay array too small: " + pay.length + " < " + employees.size());
+        }
+        int hourlyCount = 0;
+        int salariedCount = 0;
+        int commissionedCount = 0;
+        for (Employee e : employees) {
+            if (e.getClass() == HourlyEmployee.class) {
+                hourlyCount++;
+            } else if (e.getClass() == SalariedEmployee.class) {
+                salariedCount++;
+            } else if (e.getClass() == CommissionedEmployee.class) {
+                commissionedCount++;
+            }
+        }
+        HourlyColumns hourly = new HourlyColumns(hourlyCount);
+        SalariedColumns salaried = new SalariedColumns(salariedCount);
+        CommissionedColumns commissioned = new CommissionedColumns(commissionedCount);
+        int index = 0;
+        for (Employee e : employees) {
+            if (e.getClass() == HourlyEmployee.class) {
+                hourly.add(index, (HourlyEmployee) e);
+            } else if (e.getClass() == SalariedEmployee.class) {
+                salaried.add(index, (SalariedEmployee) e);
+            } else if (e.getClass() == CommissionedEmployee.class) {
+                commissioned.add(index, (CommissionedEmployee) e);
+            } else {
+                // 열로 옮길 필드가 없는 직원(EmployeeStore.View 등)은 자기 계산을 그대로 쓴다
+                pay[index] = e.calculatePayAmount();
+            }
+            index++;
+        }
+        hourly.calculate(pay);
+        salaried.calculate(pay);
+        commissioned.calculate(pay);
+    }
+
+    private static final class HourlyColumns {
+        private final int[] index;
+        private final long[] hourlyRate;
+        private final int[] hoursWorked;
+        private int size;
+
+        private HourlyColumns(int capacity) {
+            index = new int[capacity];
+            hourlyRate = new long[capacity];
+            hoursWorked = new int[capacity];
+        }
+
+        private void add(int employeeIndex, HourlyEmployee e) {
+            index[size] = employeeIndex;
+            hourlyRate[size] = e.getHourlyRate();
+            hoursWorked[size] = e.getHoursWorked();
+            size++;
+        }
+
+        private void calculate(long[] pay) {
+            IntStream.range(0, size).parallel()
+                    .forEach(i -> pay[index[i]] = HourlyEmployee.calculatePay(hourlyRate[i], hoursWorked[i]));
+        }
+    }
+
+    private static final class SalariedColumns {
+        private final int[] index;
+        private final long[] salary;
+        private int size;
+
+        private SalariedColumns(int capacity) {
+            index = new int[capacity];
+            salary = new long[capacity];
+        }
+
+        private void add(int employeeIndex, SalariedEmployee e) {
+            index[size] = employeeIndex;
+            salary[size] = e.getSalary();
+            size++;
+        }
+
+        private void calculate(long[] pay) {
+            IntStream.range(0, size).parallel()
+                    .forEach(i -> pay[index[i]] = SalariedEmployee.calculatePay(salary[i]));
+        }
+    }
+
+    private static final class CommissionedColumns {
+        private final int[] index;
+        private final long[] salary;
+        private final long[] sales;
+        private final int[] commissionRate;
+        private int size;
+
+        private CommissionedColumns(int capacity) {
+            index = new int[capacity];
+            salary = new long[capacity];
+            sales = new long[capacity];
+            commissionRate = new int[capacity];
+        }
+
+        private void add(int employeeIndex, CommissionedEmployee e) {
+            index[size] = employeeIndex;
+            salary[size] = e.getSalary();
+            sales[size] = e.getSales();
+            commissionRate[size] = e.getCommissionRate();
+            size++;
+        }
+
+        private void calculate(long[] pay) {
+            IntStream.range(0, size).parallel()
+                    .forEach(i -> pay[index[i]] = CommissionedEmployee.calculatePay(salary[i], sales[i], commissionRate[i]));
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.study.books.cleancode.function.obj;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/* 렌더링한 결과를 그 결과가 의존한 페이지들과 함께 기억한다.
+    페이지가 바뀌면 역색인으로 그 페이지에 의존한 항목만 골라서 버린다.
+    항목마다 대략의 메모리 크기를 매기고, 예산을 넘으면 가장 오래 안 쓴 항목부터 버린다. */
+public class RenderedPageCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    private static final int DEPENDENCY_OVERHEAD_BYTES = 16;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<WikiPagePath, Set<Object>> dependents = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long usedBytes;
+
+    public RenderedPageCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized PageContent get(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.content;
+    }
+
+    public synchronized void put(Object key, PageContent content, Collection<WikiPage> dependencies) {
+        remove(key);
+        Entry entry = new Entry(content, dependencies);
+        if (entry.bytes > maxBytes) {
+            return;
+        }
+        entries.put(key, entry);
+        usedBytes += entry.bytes;
+        for (WikiPagePath path : entry.dependencyPaths) {
+            dependents.computeIfAbsent(path, p -> new HashSet<>()).add(key);
+        }
+        evictOverBudget();
+    }
+
+    public synchronized void invalidate(WikiPagePath changedPagePath) {
+        Set<Object> keys = dependents.get(changedPagePath);
+        if (keys != null) {
+            for (Object key : keys.toArray()) {
+                remove(key);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        dependents.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private void evictOverBudget() {
+        while (usedBytes > maxBytes && !entries.isEmpty()) {
+            remove(entries.keySet().iterator().next());
+        }
+    }
+
+    private void remove(Object key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return;
+        }
+        usedBytes -= entry.bytes;
+        for (WikiPagePath path : entry.dependencyPaths) {
+            Set<Object> keys = dependents.get(path);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    dependents.remove(path);
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final PageContent content;
+        private final Set<WikiPagePath> dependencyPaths = new HashSet<>();
+        private final long bytes;
+
+        private Entry(PageContent content, Collection<WikiPage> dependencies) {
+            this.content = content;
+            for (WikiPage page : dependencies) {
+                dependencyPaths.add(page.getFullPath());
+            }
+            this.bytes = ENTRY_OVERHEAD_BYTES
+                    + 2L * content.length()
+                    + (long) DEPENDENCY_OVERHEAD_BYTES * dependencyPaths.size();
+        }
+    }
+
+}
@@ -1,19 +1,56 @@
 package com.study.books.cleancode.function.obj;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
 public class SalariedEmployee extends Employee
 {
+    private long salary;
+
     public SalariedEmployee(EmployeeRecord r) {
         super();
+        type = Type.SALARIED;
+        load(r);
+    }
+
+    public final void load(EmployeeRecord r) {
+        id = r.id;
+        salary = r.salary;
+    }
+
+    public static long calculatePay(long salary) {
+        return salary;
+    }
+
+    public static LocalDate nextMonthlyPayday(LocalDate from) {
+        LocalDate payday = lastWeekdayOfMonth(from);
+        if (payday.isBefore(from)) {
+            payday = lastWeekdayOfMonth(from.plusMonths(1));
+        }
+        return payday;
+    }
+
+    private static LocalDate lastWeekdayOfMonth(LocalDate date) {
+        LocalDate lastDay = date.with(TemporalAdjusters.lastDayOfMonth());
+        while (lastDay.getDayOfWeek() == DayOfWeek.SATURDAY || lastDay.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            lastDay = lastDay.minusDays(1);
+        }
+        return lastDay;
+    }
+
+    public long getSalary() {
+        return salary;
     }
 
     @Override
-    public boolean isPayday() {
-        return false;
+    public LocalDate nextPayday(LocalDate from) {
+        return nextMonthlyPayday(from);
     }
 
     @Override
-    public Money calculatePay() {
-        return null;
+    public long calculatePayAmount() {
+        return calculatePay(salary);
     }
 
     @Override
@@ -1,7 +1,96 @@
 package com.study.books.cleancode.function.obj;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class WikiPage {
 
+    private final String name;
+    private final WikiPage parent;
+    private final WikiPagePath fullPath;
+    private final PageHierarchyIndex hierarchyIndex;
+    private final long id;
+    private final Map<String, WikiPage> children = new LinkedHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public WikiPage() {
+        this("", null);
+    }
+
+    private WikiPage(String name, WikiPage parent) {
+        this.name = name;
+        this.parent = parent;
+        this.fullPath = parent == null ? WikiPagePath.root() : parent.fullPath.child(name);
+        this.hierarchyIndex = parent == null ? new PageHierarchyIndex() : parent.hierarchyIndex;
+        this.id = hierarchyIndex.nextPageId();
+        if (parent == null) {
+            hierarchyIndex.add(fullPath, this);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public WikiPage getParent() {
+        return parent;
+    }
+
+    WikiPagePath getFullPath() {
+        return fullPath;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void markModified() {
+        version.incrementAndGet();
+        PageCrawlerImpl.pageChanged(this);
+    }
+
+    public PageHierarchyIndex getHierarchyIndex() {
+        return hierarchyIndex;
+    }
+
+    public boolean isRoot() {
+        return parent == null;
+    }
+
+    public synchronized WikiPage getChildPage(String childName) {
+        return children.get(childName);
+    }
+
+    public WikiPage addChildPage(String childName) {
+        WikiPage child = new WikiPage(childName, this);
+        synchronized (this) {
+            if (children.put(childName, child) != null) {
+                hierarchyIndex.remove(child.fullPath);
+            }
+            hierarchyIndex.add(child.fullPath, child);
+        }
+        PageCrawlerImpl.pageChanged(child);
+        return child;
+    }
+
+    public void removeChildPage(String childName) {
+        WikiPage child;
+        synchronized (this) {
+            child = children.remove(childName);
+            if (child != null) {
+                hierarchyIndex.remove(child.fullPath);
+            }
+        }
+        if (child != null) {
+            PageCrawlerImpl.pageChanged(child);
+        }
+    }
+
     public PageCrawler getPageCrawler() {
         return new PageCrawler();
     }
@@ -1,4 +1,143 @@
 package com.study.books.cleancode.function.obj;
 
-public class WikiPagePath {
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/* 경로는 부모 경로와 마지막 이름 한 조각으로 이뤄진다.
+    같은 경로는 항상 같은 인스턴스로 만들어지므로(intern) 부모 접두사를 공유하고,
+    equals 는 참조 비교로 충분하다. 해시와 렌더링한 문자열도 경로마다 한 번만 계산한다.
+    부모는 자식을 약한 참조로만 기억한다. 아무도 쓰지 않는 경로는 GC 가 거둬 가고 표에서도 빠지므로,
+    사용자 입력으로 경로를 계속 만들어도 힙이 끝없이 늘지 않는다.
+    살아 있는 경로는 표가 항상 그 인스턴스를 돌려주므로 같은 경로가 동시에 둘 생기지는 않는다. */
+public final class WikiPagePath {
+
+    private static final WikiPagePath ROOT = new WikiPagePath(null, "");
+    private static final ReferenceQueue<WikiPagePath> collectedChildren = new ReferenceQueue<>();
+
+    private final WikiPagePath parent;
+    private final String name;
+    private final int depth;
+    private final int hash;
+    private final ConcurrentMap<String, ChildReference> children = new ConcurrentHashMap<>();
+    private volatile String rendered;
+
+    private WikiPagePath(WikiPagePath parent, String name) {
+        this.parent = parent;
+        this.name = name;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.hash = parent == null ? 0 : 31 * parent.hash + name.hashCode();
+    }
+
+    public static WikiPagePath root() {
+        return ROOT;
+    }
+
+    public static WikiPagePath of(List<String> names) {
+        WikiPagePath path = ROOT;
+        for (String name : names) {
+            path = path.child(name);
+        }
+        return path;
+    }
+
+    public WikiPagePath child(String childName) {
+        expungeCollectedChildren();
+        while (true) {
+            ChildReference reference = children.get(childName);
+            WikiPagePath child = reference == null ? null : reference.get();
+            if (child != null) {
+                return child;
+            }
+            WikiPagePath created = new WikiPagePath(this, childName);
+            ChildReference createdReference = new ChildReference(created);
+            boolean installed = reference == null
+                    ? children.putIfAbsent(childName, createdReference) == null
+                    : children.replace(childName, reference, createdReference);
+            if (installed) {
+                return created;
+            }
+        }
+    }
+
+    private static void expungeCollectedChildren() {
+        ChildReference reference;
+        while ((reference = (ChildReference) collectedChildren.poll()) != null) {
+            reference.parent.children.remove(reference.name, reference);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public boolean isRoot() {
+        return parent == null;
+    }
+
+    public List<String> getNames() {
+        String[] names = new String[depth];
+        for (WikiPagePath path = this; !path.isRoot(); path = path.parent) {
+            names[path.depth - 1] = path.name;
+        }
+        List<String> list = new ArrayList<>(depth);
+        Collections.addAll(list, names);
+        return Collections.unmodifiableList(list);
+    }
+
+    public boolean startsWith(WikiPagePath prefix) {
+        WikiPagePath path = this;
+        while (path.depth > prefix.depth) {
+            path = path.parent;
+        }
+        return path == prefix;
+    }
+
+    public WikiPagePath parentPath() {
+        return isRoot() ? this : parent;
+    }
+
+    public String render() {
+        String result = rendered;
+        if (result == null) {
+            result = isRoot() || parent.isRoot() ? name : parent.render() + "." + name;
+            rendered = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+
+    private static final class ChildReference extends WeakReference<WikiPagePath> {
+        private final WikiPagePath parent;
+        private final String name;
+
+        private ChildReference(WikiPagePath child) {
+            super(child, collectedChildren);
+            this.parent = child.parent;
+            this.name = child.name;
+        }
+    }
+
 }
@@ -1,8 +1,13 @@
 package com.study.books.cleancode.meaningfulname;
 
 import com.study.books.cleancode.meaningfulname.objs.Account;
+import com.study.books.cleancode.meaningfulname.objs.AccountRegistry;
+import com.study.books.cleancode.meaningfulname.objs.LetterStatistics;
 
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
 import java.util.List;
+import java.util.Optional;
 
 import static sun.misc.Version.print;
 
@@ -20,6 +25,10 @@ public class MeaningfulName {
     List<Account> accountList;  // 부적합한 방식. List 라는 단어는 프로그래머에게 특수한 의미이기 때문
     List<Account> accounts;     // 좀더 나은 표현
 
+    public Optional<Account> findAccount(String name) {
+        return AccountRegistry.shared().find(name);   // 목록을 훑지 않고 이름으로 바로 찾는다
+    }
+
     /* 의미 있게 구분하라
         연속된 숫자를 붙히거나 불용어를 추가하는 것은 적절하지 못하다.
         이름이 달라야 한다면 의미도 달라져야 한다!
@@ -50,7 +59,7 @@ public class MeaningfulName {
         - 동사나 동사구가 적합하며 javabean 표준에 맞춰 get set is 로 사용한다.
         - 생성자를 overload 할 때는 인수를 설명하는 이름을 담은 메서드를 통해 정적 팩토리 메서드를 사용한다. */
     Account account1 = Account.GeneratorAccountName("name");    // Good!
-    Account account2 = new Account("name");               // Bad!
+    // Account account2 = new Account("name");            // Bad! 이제는 생성자를 감춰서 컴파일되지 않는다
 
     /* 기발한 이름은 피하라
         구어체나 속어를 이름으로 사용하지 말자! */
@@ -140,6 +149,128 @@ public class MeaningfulName {
         // 함수를 쪼개기 쉬워져 알고리즘도 좀 더 명확해진다.
     }
 
+    private static final CompiledGuessStatisticsMessage COMPILED_GUESS_STATISTICS_MESSAGE = new CompiledGuessStatisticsMessage();
+
+    public void printCompiledGuessStatistics(char candidate, long count) {
+        System.out.println(COMPILED_GUESS_STATISTICS_MESSAGE.make(candidate, count));
+    }
+
+    /* LetterStatistics 는 글자 수만 세고 메시지는 모른다. 문장으로 옮기는 일은 여기서 한다.
+        나온 글자마다 한 줄씩 문자 순서대로 적는다. */
+    public StringBuilder appendGuessStatistics(StringBuilder out, LetterStatistics statistics) {
+        statistics.forEachLetter((letter, count) ->
+                COMPILED_GUESS_STATISTICS_MESSAGE.appendTo(out, letter, count).append('\n'));
+        return out;
+    }
+
+    /* 나오지 않은 글자도 "There are no" 로 적는다 */
+    public StringBuilder appendGuessStatistics(StringBuilder out, LetterStatistics statistics, char... candidates) {
+        for (char candidate : candidates) {
+            COMPILED_GUESS_STATISTICS_MESSAGE.appendTo(out, candidate, statistics.getCount(candidate)).append('\n');
+        }
+        return out;
+    }
+
+    /* 위 GuessStatisticsMessage 를 많이 호출하는 곳에서 쓰는 판.
+        세 변수를 필드 대신 미리 만들어 둔 조각(없음/하나/여럿)으로 고르므로 여러 스레드가 인스턴스 하나를 함께 써도 된다.
+        "There %s %s %s%s" 템플릿은 미리 조각으로 나눠 두고 호출자가 준 버퍼에 바로 쓴다. */
+    public static final class CompiledGuessStatisticsMessage {
+        private static final Fragments NO_LETTERS = new Fragments("There are no ", false, "s");
+        private static final Fragments ONE_LETTER = new Fragments("There is 1 ", false, "");
+        private static final Fragments MANY_LETTERS = new Fragments("There are ", true, "s");
+
+        public String make(char candidate, long count) {
+            return appendTo(new StringBuilder(length(count)), candidate, count).toString();
+        }
+
+        public StringBuilder appendTo(StringBuilder out, char candidate, long count) {
+            Fragments fragments = createPluralDependentMessageParts(count);
+            out.append(fragments.head);
+            if (fragments.writesCount) {
+                out.append(count).append(' ');
+            }
+            return out.append(candidate).append(fragments.pluralModifier);
+        }
+
+        /* 버퍼에 자리가 모자라면 아무것도 쓰지 않고 BufferOverflowException 을 던진다 */
+        public CharBuffer appendTo(CharBuffer out, char candidate, long count) {
+            if (out.remaining() < length(count)) {
+                throw new BufferOverflowException();
+            }
+            Fragments fragments = createPluralDependentMessageParts(count);
+            out.put(fragments.head);
+            if (fragments.writesCount) {
+                putCount(out, count);
+                out.put(' ');
+            }
+            return out.put(candidate).put(fragments.pluralModifier);
+        }
+
+        public int length(long count) {
+            Fragments fragments = createPluralDependentMessageParts(count);
+            int length = fragments.head.length + 1 + fragments.pluralModifier.length;
+            if (fragments.writesCount) {
+                length += countLength(count) + 1;
+            }
+            return length;
+        }
+
+        private Fragments createPluralDependentMessageParts(long count) {
+            if (count == 0) {
+                return thereAreNoLetters();
+            } else if (count == 1) {
+                return thereIsOneLetter();
+            } else {
+                return thereAreManyLetters();
+            }
+        }
+
+        private Fragments thereAreManyLetters() {
+            return MANY_LETTERS;
+        }
+
+        private Fragments thereIsOneLetter() {
+            return ONE_LETTER;
+        }
+
+        private Fragments thereAreNoLetters() {
+            return NO_LETTERS;
+        }
+
+        private static void putCount(CharBuffer out, long count) {
+            int end = out.position() + countLength(count);
+            if (count < 0) {
+                out.put('-');
+            }
+            long value = count;
+            for (int i = end - 1; i >= out.position(); i--) {
+                out.put(i, (char) ('0' + Math.abs(value % 10)));
+                value /= 10;
+            }
+            out.position(end);
+        }
+
+        private static int countLength(long count) {
+            int length = count < 0 ? 2 : 1;
+            for (long value = count; value >= 10 || value <= -10; value /= 10) {
+                length++;
+            }
+            return length;
+        }
+
+        private static final class Fragments {
+            private final char[] head;
+            private final boolean writesCount;
+            private final char[] pluralModifier;
+
+            private Fragments(String head, boolean writesCount, String pluralModifier) {
+                this.head = head.toCharArray();
+                this.writesCount = writesCount;
+                this.pluralModifier = pluralModifier.toCharArray();
+            }
+        }
+    }
+
     /* 불필요한 맥락을 없애라
         일반적으로는 짧은 이름이 긴 이름보다 좋다. 단, 의미가 분명한 경우에 한해서다.
         이름에 불필요한 맥락을 추가하지 않도록 주의한다. */
@@ -4,11 +4,17 @@ public class Account {
 
     private String name;
 
-    public Account(String name) {
+    /* 이름마다 하나만 있어야 하므로 생성은 AccountRegistry 만 한다 */
+    Account(String name) {
         this.name = name;
     }
 
+    /* 같은 이름이면 등록부에 있는 같은 Account 를 돌려준다 */
     public static Account GeneratorAccountName(String name) {
-        return new Account(name);
+        return AccountRegistry.shared().register(name);
+    }
+
+    public String getName() {
+        return name;
     }
 }
@@ -0,0 +1,50 @@
+package com.study.books.cleancode.meaningfulname.objs;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/* 이름마다 Account 를 하나만 두는 등록부.
+    같은 이름으로 여러 스레드가 동시에 등록해도 모두 같은 인스턴스를 받는다.
+    조회는 이름 해시로 바로 찾으므로 목록을 훑지 않는다. */
+public final class AccountRegistry {
+
+    private static final AccountRegistry SHARED = new AccountRegistry();
+
+    private final ConcurrentMap<String, Account> accounts;
+
+    public AccountRegistry() {
+        this(16);
+    }
+
+    public AccountRegistry(int expectedAccounts) {
+        this.accounts = new ConcurrentHashMap<>(expectedAccounts);
+    }
+
+    public static AccountRegistry shared() {
+        return SHARED;
+    }
+
+    public Account register(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("account name is required");
+        }
+        Account account = accounts.get(name);
+        if (account != null) {
+            return account;
+        }
+        return accounts.computeIfAbsent(name, Account::new);
+    }
+
+    public Optional<Account> find(String name) {
+        return Optional.ofNullable(accounts.get(name));
+    }
+
+    public boolean contains(String name) {
+        return accounts.containsKey(name);
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+}
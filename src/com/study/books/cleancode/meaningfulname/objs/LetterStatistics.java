@@ -0,0 +1,261 @@
+package com.study.books.cleancode.meaningfulname.objs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/* 문자마다 몇 번 나왔는지 센 결과.
+    짧은 입력은 한 스레드에서 세고, 긴 입력만 조각으로 나눠 스레드마다 히스토그램에 센 뒤 합친다.
+    히스토그램은 Latin-1 범위만 배열로 두고 나머지 문자는 나온 것만 작은 해시 표에 담는다.
+    파일은 조각마다 메모리 매핑해서 UTF-8 로 풀며, 조각 경계는 문자 중간에 걸리지 않게 맞춘다.
+    메시지로 옮기는 일은 결과를 쓰는 쪽이 forEachLetter 로 한다. */
+public final class LetterStatistics {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final long FILE_CHUNK = 64L << 20;
+    private static final int DECODE_BUFFER = 8192;
+
+    private final Histogram counts;
+
+    private LetterStatistics(Histogram counts) {
+        this.counts = counts;
+    }
+
+    public static LetterStatistics count(CharSequence text) {
+        int length = text.length();
+        if (length <= PARALLEL_THRESHOLD) {
+            Histogram histogram = new Histogram();
+            countChars(text, 0, length, histogram);
+            return new LetterStatistics(histogram);
+        }
+        int chunk = Math.max(PARALLEL_THRESHOLD, length / (Runtime.getRuntime().availableProcessors() * 4) + 1);
+        int chunks = (length + chunk - 1) / chunk;
+        Histogram counts = IntStream.range(0, chunks).parallel().collect(
+                Histogram::new,
+                (histogram, i) -> countChars(text, i * chunk, (int) Math.min(length, (long) (i + 1) * chunk), histogram),
+                Histogram::addAll);
+        return new LetterStatistics(counts);
+    }
+
+    public static LetterStatistics count(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel);
+            if (boundaries.length == 2) {
+                Histogram histogram = new Histogram();
+                countMapped(channel, boundaries[0], boundaries[1], histogram);
+                return new LetterStatistics(histogram);
+            }
+            Histogram counts = IntStream.range(0, boundaries.length - 1).parallel().collect(
+                    Histogram::new,
+                    (histogram, i) -> countMapped(channel, boundaries[i], boundaries[i + 1], histogram),
+                    Histogram::addAll);
+            return new LetterStatistics(counts);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot count letters in " + file, e);
+        }
+    }
+
+    public long getCount(char candidate) {
+        return counts.get(candidate);
+    }
+
+    public long getTotal() {
+        return counts.total();
+    }
+
+    /* 나온 글자마다 한 번씩 문자 순서대로 부른다 */
+    public void forEachLetter(LetterCountConsumer action) {
+        counts.forEach((c, count) -> {
+            if (Character.isLetter(c)) {
+                action.accept(c, count);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    public interface LetterCountConsumer {
+        void accept(char letter, long count);
+    }
+
+    private static void countChars(CharSequence text, int from, int to, Histogram histogram) {
+        for (int i = from; i < to; i++) {
+            histogram.add(text.charAt(i), 1);
+        }
+    }
+
+    private static void countMapped(FileChannel channel, long from, long to, Histogram histogram) {
+        try {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CharBuffer chars = CharBuffer.allocate(DECODE_BUFFER);
+            boolean endOfInput;
+            do {
+                endOfInput = !decoder.decode(bytes, chars, true).isOverflow();
+                if (endOfInput) {
+                    decoder.flush(chars);
+                }
+                chars.flip();
+                while (chars.hasRemaining()) {
+                    histogram.add(chars.get(), 1);
+                }
+                chars.clear();
+            } while (!endOfInput);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /* 조각 시작 위치가 UTF-8 연속 바이트(10xxxxxx)이면 다음 문자의 첫 바이트까지 민다 */
+    private static long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(1, (size + FILE_CHUNK - 1) / FILE_CHUNK);
+        long[] boundaries = new long[chunks + 1];
+        ByteBuffer probe = ByteBuffer.allocate(4);
+        for (int i = 1; i < chunks; i++) {
+            long boundary = i * FILE_CHUNK;
+            probe.clear();
+            channel.read(probe, boundary);
+            probe.flip();
+            while (probe.hasRemaining() && (probe.get() & 0xC0) == 0x80) {
+                boundary++;
+            }
+            boundaries[i] = boundary;
+        }
+        boundaries[chunks] = size;
+        return boundaries;
+    }
+
+    /* Latin-1 은 배열 칸에 바로 세고, 그 밖의 문자는 나온 것만 선형 탐사 해시 표에 센다 */
+    private static final class Histogram {
+        private static final int DENSE_SIZE = 256;
+        private static final int INITIAL_SPARSE_CAPACITY = 16;
+        private static final int EMPTY = -1;
+
+        private final long[] dense = new long[DENSE_SIZE];
+        private int[] sparseKeys;
+        private long[] sparseCounts;
+        private int sparseSize;
+
+        void add(char c, long count) {
+            if (c < DENSE_SIZE) {
+                dense[c] += count;
+                return;
+            }
+            if (sparseKeys == null) {
+                sparseKeys = newKeys(INITIAL_SPARSE_CAPACITY);
+                sparseCounts = new long[INITIAL_SPARSE_CAPACITY];
+            }
+            int slot = slotOf(sparseKeys, c);
+            if (sparseKeys[slot] == EMPTY) {
+                sparseKeys[slot] = c;
+                sparseSize++;
+            }
+            sparseCounts[slot] += count;
+            if (sparseSize * 2 > sparseKeys.length) {
+                growSparse();
+            }
+        }
+
+        long get(char c) {
+            if (c < DENSE_SIZE) {
+                return dense[c];
+            }
+            if (sparseKeys == null) {
+                return 0;
+            }
+            int slot = slotOf(sparseKeys, c);
+            return sparseKeys[slot] == EMPTY ? 0 : sparseCounts[slot];
+        }
+
+        long total() {
+            long total = 0;
+            for (long count : dense) {
+                total += count;
+            }
+            if (sparseKeys != null) {
+                for (int i = 0; i < sparseKeys.length; i++) {
+                    if (sparseKeys[i] != EMPTY) {
+                        total += sparseCounts[i];
+                    }
+                }
+            }
+            return total;
+        }
+
+        void addAll(Histogram other) {
+            for (int c = 0; c < DENSE_SIZE; c++) {
+                dense[c] += other.dense[c];
+            }
+            if (other.sparseKeys != null) {
+                for (int i = 0; i < other.sparseKeys.length; i++) {
+                    if (other.sparseKeys[i] != EMPTY) {
+                        add((char) other.sparseKeys[i], other.sparseCounts[i]);
+                    }
+                }
+            }
+        }
+
+        void forEach(LetterCountConsumer action) {
+            for (int c = 0; c < DENSE_SIZE; c++) {
+                if (dense[c] != 0) {
+                    action.accept((char) c, dense[c]);
+                }
+            }
+            if (sparseKeys == null) {
+                return;
+            }
+            int[] keys = new int[sparseSize];
+            int size = 0;
+            for (int key : sparseKeys) {
+                if (key != EMPTY) {
+                    keys[size++] = key;
+                }
+            }
+            Arrays.sort(keys);
+            for (int key : keys) {
+                action.accept((char) key, get((char) key));
+            }
+        }
+
+        private void growSparse() {
+            int[] oldKeys = sparseKeys;
+            long[] oldCounts = sparseCounts;
+            sparseKeys = newKeys(oldKeys.length * 2);
+            sparseCounts = new long[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slotOf(sparseKeys, (char) oldKeys[i]);
+                    sparseKeys[slot] = oldKeys[i];
+                    sparseCounts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        private static int slotOf(int[] keys, char c) {
+            int mask = keys.length - 1;
+            int slot = (c * 0x9E3779B1 >>> 16) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != c) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package com.study.books.cleancode.remark;
 
 import com.study.books.cleancode.function.obj.EmployeeRecord;
+import com.study.books.cleancode.remark.obj.DependencyGraph;
 import com.study.books.cleancode.remark.obj.Module;
 import com.study.books.cleancode.remark.obj.SubSysMod;
 
-import java.util.ArrayList;
-
 public class Remark {
 
     private static final boolean HOURLY_FLAG = true;
@@ -71,13 +70,13 @@ public class Remark {
         함수나 변수로 표현할 수 있다면 주석을 달지 마라 */
     public void module() {
         // 전역 목록 <module>에 속하는 모듈이 우리가 속한 하위 시스템에 의존하는가?
-        Module module = new Module();
-        SubSysMod subSysMod = new SubSysMod();
-        if (module.getDependSubsystems().contains(subSysMod.getSubSystem()));
+        Module module = DependencyGraph.shared().module("module");
+        SubSysMod subSysMod = new SubSysMod("subsystem");
+        if (module.dependsOn(subSysMod.getSubSystem()));
 
-        ArrayList moduleDependencies = module.getDependSubsystems();
         String ourSubSystem = subSysMod.getSubSystem();
-        if (moduleDependencies.contains(ourSubSystem));
+        boolean dependsOnOurSubSystem = module.dependsOn(ourSubSystem);
+        if (dependsOnOurSubSystem);
     }
     /* 8. 위치를 표시하는 주석
         배너 아래 특정 기능을 모아놓으면 유용한 경우도 있지만 극히 드물고 가독성만 낮추므로 제거해야 마땅하다.
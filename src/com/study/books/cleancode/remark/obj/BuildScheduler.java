@@ -0,0 +1,101 @@
+package com.study.books.cleancode.remark.obj;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/* 모듈을 의존 순서대로 묶음(wave)으로 나눠 빌드한다.
+    한 묶음 안의 모듈은 서로 의존하지 않으므로 fork-join 풀에서 함께 돌리고,
+    묶음이 모두 끝나야 다음 묶음을 시작한다. 모듈이 아닌 하위 시스템은 이미 준비된 것으로 본다.
+    순환이 있으면 순환에 걸린 모듈 이름을 담아 IllegalStateException 을 던진다. */
+public class BuildScheduler {
+
+    private final ForkJoinPool pool;
+
+    public BuildScheduler() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BuildScheduler(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public static List<List<Module>> plan(DependencyGraph graph) {
+        synchronized (graph) {
+            List<Module> modules = graph.getModules();
+            int[] remaining = new int[graph.size()];
+            List<Module> ready = new ArrayList<>();
+            for (Module module : modules) {
+                BitSet dependencies = graph.directDependencies(module.getId());
+                for (int d = dependencies.nextSetBit(0); d >= 0; d = dependencies.nextSetBit(d + 1)) {
+                    if (graph.moduleOf(d) != null) {
+                        remaining[module.getId()]++;
+                    }
+                }
+                if (remaining[module.getId()] == 0) {
+                    ready.add(module);
+                }
+            }
+            List<List<Module>> waves = new ArrayList<>();
+            int planned = 0;
+            while (!ready.isEmpty()) {
+                waves.add(ready);
+                planned += ready.size();
+                List<Module> next = new ArrayList<>();
+                for (Module module : ready) {
+                    BitSet dependents = graph.directDependents(module.getId());
+                    for (int d = dependents.nextSetBit(0); d >= 0; d = dependents.nextSetBit(d + 1)) {
+                        if (--remaining[d] == 0) {
+                            next.add(graph.moduleOf(d));
+                        }
+                    }
+                }
+                ready = next;
+            }
+            if (planned < modules.size()) {
+                throw new IllegalStateException("dependency cycle: " + String.join(" -> ", findCycle(graph, remaining)));
+            }
+            return waves;
+        }
+    }
+
+    public void build(DependencyGraph graph, Consumer<Module> builder) {
+        for (List<Module> wave : plan(graph)) {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(wave.size());
+            for (Module module : wave) {
+                tasks.add(ForkJoinTask.adapt(() -> builder.accept(module)));
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+    }
+
+    /* 아직 남은 모듈은 모두 남은 의존 대상이 있으므로 남은 쪽만 따라가면 언젠가 왔던 곳으로 돌아온다 */
+    private static List<String> findCycle(DependencyGraph graph, int[] remaining) {
+        int start = 0;
+        while (remaining[start] == 0) {
+            start++;
+        }
+        int[] visitedAt = new int[remaining.length];
+        List<Integer> path = new ArrayList<>();
+        int current = start;
+        while (visitedAt[current] == 0) {
+            path.add(current);
+            visitedAt[current] = path.size();
+            BitSet dependencies = graph.directDependencies(current);
+            int next = dependencies.nextSetBit(0);
+            while (remaining[next] == 0) {
+                next = dependencies.nextSetBit(next + 1);
+            }
+            current = next;
+        }
+        List<String> cycle = new ArrayList<>();
+        for (int i = visitedAt[current] - 1; i < path.size(); i++) {
+            cycle.add(graph.nameOf(path.get(i)));
+        }
+        cycle.add(graph.nameOf(current));
+        return cycle;
+    }
+}
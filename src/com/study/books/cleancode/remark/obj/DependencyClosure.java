@@ -0,0 +1,94 @@
+package com.study.books.cleancode.remark.obj;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/* DependencyGraph 의 전이 의존 관계를 번호마다 비트셋으로 들고 있는 색인.
+    의존 관계가 바뀔 때마다 처음부터 다시 계산하지 않고 영향받는 번호만 고친다.
+    - 추가 : 새 의존 대상과 그 대상이 닿는 번호들을 추가하는 쪽과 그 조상들에 더한다.
+    - 삭제 : 삭제하는 쪽과 그 조상들만 자식부터 차례로 다시 계산한다.
+    순환을 만드는 의존 관계는 추가되지 않는다. 색인은 그래프의 잠금 안에서만 바뀐다. */
+public class DependencyClosure {
+
+    private final DependencyGraph graph;
+    private final List<BitSet> reach = new ArrayList<>();
+    private final List<BitSet> reachedBy = new ArrayList<>();
+
+    DependencyClosure(DependencyGraph graph, int size) {
+        this.graph = graph;
+        for (int id = 0; id < size; id++) {
+            nodeAdded();
+        }
+    }
+
+    public boolean dependsOn(int module, int target) {
+        synchronized (graph) {
+            return reach.get(module).get(target);
+        }
+    }
+
+    /* module 이 직접 또는 간접으로 의존하는 번호들. 돌려준 비트셋은 복사본이다 */
+    public BitSet dependenciesOf(int module) {
+        synchronized (graph) {
+            return (BitSet) reach.get(module).clone();
+        }
+    }
+
+    /* target 에 직접 또는 간접으로 의존하는 번호들. 돌려준 비트셋은 복사본이다 */
+    public BitSet dependentsOf(int target) {
+        synchronized (graph) {
+            return (BitSet) reachedBy.get(target).clone();
+        }
+    }
+
+    void nodeAdded() {
+        reach.add(new BitSet());
+        reachedBy.add(new BitSet());
+    }
+
+    boolean createsCycle(int from, int to) {
+        return from == to || reach.get(to).get(from);
+    }
+
+    void edgeAdded(int from, int to) {
+        BitSet added = (BitSet) reach.get(to).clone();
+        added.set(to);
+        BitSet ancestors = (BitSet) reachedBy.get(from).clone();
+        ancestors.set(from);
+        for (int x = ancestors.nextSetBit(0); x >= 0; x = ancestors.nextSetBit(x + 1)) {
+            BitSet newlyReached = (BitSet) added.clone();
+            newlyReached.andNot(reach.get(x));
+            reach.get(x).or(newlyReached);
+            for (int y = newlyReached.nextSetBit(0); y >= 0; y = newlyReached.nextSetBit(y + 1)) {
+                reachedBy.get(y).set(x);
+            }
+        }
+    }
+
+    /* 순환이 없으므로 x 가 y 에 닿으면 x 의 전이 의존 수가 y 보다 크다.
+        그래서 삭제 전 개수가 적은 조상부터 다시 계산하면 자식이 언제나 먼저 끝나 있다. */
+    void edgeRemoved(int from) {
+        BitSet ancestors = (BitSet) reachedBy.get(from).clone();
+        ancestors.set(from);
+        List<Integer> order = new ArrayList<>(ancestors.cardinality());
+        for (int x = ancestors.nextSetBit(0); x >= 0; x = ancestors.nextSetBit(x + 1)) {
+            order.add(x);
+        }
+        order.sort((a, b) -> Integer.compare(reach.get(a).cardinality(), reach.get(b).cardinality()));
+        for (int x : order) {
+            BitSet direct = graph.directDependencies(x);
+            BitSet updated = new BitSet();
+            for (int child = direct.nextSetBit(0); child >= 0; child = direct.nextSetBit(child + 1)) {
+                updated.set(child);
+                updated.or(reach.get(child));
+            }
+            BitSet lost = (BitSet) reach.get(x).clone();
+            lost.andNot(updated);
+            for (int y = lost.nextSetBit(0); y >= 0; y = lost.nextSetBit(y + 1)) {
+                reachedBy.get(y).clear(x);
+            }
+            reach.set(x, updated);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.study.books.cleancode.remark.obj;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/* 모듈과 하위 시스템 이름을 정수 번호로 바꿔 두고 의존 관계를 비트셋으로 보관한다.
+    - 모듈의 의존 대상은 Module 이 가진 비트셋 한 비트로 확인한다.
+    - 하위 시스템마다 그것에 의존하는 모듈의 비트셋을 따로 두어 역방향 조회도 한 번에 끝난다.
+    모듈도 다른 모듈이 의존할 수 있으므로 모듈과 하위 시스템은 같은 번호 공간을 쓴다. */
+public class DependencyGraph {
+
+    private static final DependencyGraph SHARED = new DependencyGraph();
+    private static final BitSet EMPTY = new BitSet();
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<Module> modules = new ArrayList<>();
+    private final List<BitSet> dependents = new ArrayList<>();
+    private DependencyClosure closure;
+
+    public static DependencyGraph shared() {
+        return SHARED;
+    }
+
+    public synchronized int idOf(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        int newId = names.size();
+        ids.put(name, newId);
+        names.add(name);
+        modules.add(null);
+        dependents.add(new BitSet());
+        if (closure != null) {
+            closure.nodeAdded();
+        }
+        return newId;
+    }
+
+    /* 등록되지 않은 이름이면 -1 */
+    public synchronized int findId(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public synchronized String nameOf(int id) {
+        return names.get(id);
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    public synchronized Module module(String name) {
+        int id = idOf(name);
+        Module module = modules.get(id);
+        if (module == null) {
+            module = new Module(this, id, name);
+            modules.set(id, module);
+        }
+        return module;
+    }
+
+    public synchronized Module moduleOf(int id) {
+        return modules.get(id);
+    }
+
+    public synchronized List<Module> getModules() {
+        List<Module> result = new ArrayList<>();
+        for (Module module : modules) {
+            if (module != null) {
+                result.add(module);
+            }
+        }
+        return result;
+    }
+
+    /* 처음 부를 때 지금까지의 의존 관계로 전이 의존 색인을 만들고, 그 뒤로는 변경마다 함께 고친다.
+        이미 순환이 있으면 IllegalStateException 을 던지고, 색인이 있는 동안에는 순환을 만드는 추가를 거절한다. */
+    public synchronized DependencyClosure closure() {
+        if (closure == null) {
+            DependencyClosure built = new DependencyClosure(this, names.size());
+            for (Module module : getModules()) {
+                BitSet direct = module.dependencies;
+                for (int d = direct.nextSetBit(0); d >= 0; d = direct.nextSetBit(d + 1)) {
+                    if (built.createsCycle(module.getId(), d)) {
+                        throw new IllegalStateException("dependency cycle: " + module.getName() + " -> " + names.get(d));
+                    }
+                    built.edgeAdded(module.getId(), d);
+                }
+            }
+            closure = built;
+        }
+        return closure;
+    }
+
+    public synchronized boolean dependsOn(int module, int subsystem) {
+        Module m = modules.get(module);
+        return m != null && m.dependencies.get(subsystem);
+    }
+
+    /* subsystem 에 직접 의존하는 모듈 번호들. 돌려준 비트셋은 복사본이다 */
+    public synchronized BitSet dependentsOf(int subsystem) {
+        return (BitSet) dependents.get(subsystem).clone();
+    }
+
+    public synchronized BitSet dependenciesOf(int module) {
+        Module m = modules.get(module);
+        return m == null ? new BitSet() : (BitSet) m.dependencies.clone();
+    }
+
+    synchronized boolean addDependency(Module module, int subsystem) {
+        checkId(subsystem);
+        if (module.dependencies.get(subsystem)) {
+            return false;
+        }
+        if (closure != null && closure.createsCycle(module.getId(), subsystem)) {
+            throw new IllegalArgumentException("dependency cycle: " + module.getName() + " -> " + names.get(subsystem));
+        }
+        module.dependencies.set(subsystem);
+        dependents.get(subsystem).set(module.getId());
+        if (closure != null) {
+            closure.edgeAdded(module.getId(), subsystem);
+        }
+        return true;
+    }
+
+    synchronized boolean removeDependency(Module module, int subsystem) {
+        checkId(subsystem);
+        if (!module.dependencies.get(subsystem)) {
+            return false;
+        }
+        module.dependencies.clear(subsystem);
+        dependents.get(subsystem).clear(module.getId());
+        if (closure != null) {
+            closure.edgeRemoved(module.getId());
+        }
+        return true;
+    }
+
+    /* 아래 두 메서드는 복사하지 않은 내부 비트셋을 돌려주므로 잠금 안에서 읽기만 한다 */
+    BitSet directDependencies(int id) {
+        Module module = modules.get(id);
+        return module == null ? EMPTY : module.dependencies;
+    }
+
+    BitSet directDependents(int id) {
+        return dependents.get(id);
+    }
+
+    synchronized List<String> namesOf(BitSet bits) {
+        List<String> result = new ArrayList<>(bits.cardinality());
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            result.add(names.get(id));
+        }
+        return result;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= names.size()) {
+            throw new IllegalArgumentException("unknown id: " + id);
+        }
+    }
+}
@@ -1,10 +1,58 @@
 package com.study.books.cleancode.remark.obj;
 
-import java.nio.charset.Charset;
-import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
+/* DependencyGraph 가 만들어 주는 모듈. 의존하는 하위 시스템을 번호 비트셋으로 가진다. */
 public class Module {
-    public ArrayList getDependSubsystems() {
-        return null;
+
+    private final DependencyGraph graph;
+    private final int id;
+    private final String name;
+    final BitSet dependencies = new BitSet();
+
+    Module(DependencyGraph graph, int id, String name) {
+        this.graph = graph;
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean addDependSubsystem(String subsystem) {
+        return graph.addDependency(this, graph.idOf(subsystem));
+    }
+
+    public boolean removeDependSubsystem(String subsystem) {
+        int subsystemId = graph.findId(subsystem);
+        return subsystemId >= 0 && graph.removeDependency(this, subsystemId);
+    }
+
+    public boolean dependsOn(int subsystem) {
+        return graph.dependsOn(id, subsystem);
+    }
+
+    public boolean dependsOn(String subsystem) {
+        int subsystemId = graph.findId(subsystem);
+        return subsystemId >= 0 && dependsOn(subsystemId);
+    }
+
+    public boolean dependsOn(SubSysMod subSysMod) {
+        return dependsOn(subSysMod.getSubSystem());
+    }
+
+    public List<String> getDependSubsystems() {
+        return graph.namesOf(graph.dependenciesOf(id));
+    }
+
+    @Override
+    public String toString() {
+        return name;
     }
 }
@@ -1,7 +1,14 @@
 package com.study.books.cleancode.remark.obj;
 
 public class SubSysMod {
+
+    private final String subSystem;
+
+    public SubSysMod(String subSystem) {
+        this.subSystem = subSystem;
+    }
+
     public String getSubSystem() {
-        return null;
+        return subSystem;
     }
 }